@@ -0,0 +1,123 @@
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+// A* search ordered by moves so far plus the number of letters still differing from the target.
+// Each move changes exactly one letter, so that Hamming distance never overestimates the moves
+// left and changes by at most one per move; the first time a word is taken off the queue its
+// distance is final and the ladder found is a shortest one. Among equally promising words the
+// deeper one goes first, which heads straight for the target once it is in sight.
+public class AStarSolver implements LadderSolver {
+
+    private static final int UNVISITED = -1;
+    // Queue pops between checks of the cancellation flag.
+    private static final int CANCEL_CHECK_INTERVAL = 1024;
+
+    private final WordGraph graph;
+    private int nodesExpanded;
+    private long elapsedNanos;
+
+    // Binary min-heap of (key, word id) with lazy deletion: a word may be queued several times and
+    // later copies are skipped once it is closed.
+    private long[] heapKeys = new long[64];
+    private int[] heapIds = new int[64];
+    private int heapSize;
+
+    public AStarSolver(WordGraph graph) {
+        this.graph = graph;
+    }
+
+    @Override
+    public int[] solve(int startId, int targetId, BooleanSupplier cancelled) {
+        long started = System.nanoTime();
+        nodesExpanded = 0;
+        heapSize = 0;
+        int[] path = search(startId, targetId, cancelled);
+        elapsedNanos = System.nanoTime() - started;
+        return path;
+    }
+
+    private int[] search(int startId, int targetId, BooleanSupplier cancelled) {
+        if (startId < 0 || targetId < 0) return null;
+        if (startId == targetId) return new int[]{startId};
+
+        int size = graph.size();
+        int targetPacked = graph.packedAt(targetId);
+        int[] parent = new int[size];
+        int[] moves = new int[size];
+        boolean[] closed = new boolean[size];
+        Arrays.fill(parent, UNVISITED);
+        parent[startId] = startId;
+        push(startId, 0, PackedWord.differences(graph.packedAt(startId), targetPacked));
+
+        int pops = 0;
+        while (heapSize > 0) {
+            if (++pops % CANCEL_CHECK_INTERVAL == 0 && cancelled.getAsBoolean()) return null;
+            int current = pop();
+            if (closed[current]) continue;
+            if (current == targetId) {
+                return BfsSolver.buildPath(parent, moves[targetId], targetId);
+            }
+            closed[current] = true;
+            nodesExpanded++;
+            int next = moves[current] + 1;
+            for (int neighbor : graph.neighbors(current)) {
+                if (closed[neighbor]) continue;
+                if (parent[neighbor] == UNVISITED || next < moves[neighbor]) {
+                    parent[neighbor] = current;
+                    moves[neighbor] = next;
+                    push(neighbor, next, PackedWord.differences(graph.packedAt(neighbor), targetPacked));
+                }
+            }
+        }
+        return null;
+    }
+
+    // Orders by moves + estimate, then by more moves first.
+    private void push(int id, int moves, int estimate) {
+        if (heapSize == heapIds.length) {
+            heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+            heapIds = Arrays.copyOf(heapIds, heapSize * 2);
+        }
+        long key = ((long) (moves + estimate) << 32) - moves;
+        int i = heapSize++;
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (heapKeys[up] <= key) break;
+            heapKeys[i] = heapKeys[up];
+            heapIds[i] = heapIds[up];
+            i = up;
+        }
+        heapKeys[i] = key;
+        heapIds[i] = id;
+    }
+
+    private int pop() {
+        int top = heapIds[0];
+        heapSize--;
+        long key = heapKeys[heapSize];
+        int id = heapIds[heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) child++;
+            if (heapKeys[child] >= key) break;
+            heapKeys[i] = heapKeys[child];
+            heapIds[i] = heapIds[child];
+            i = child;
+        }
+        heapKeys[i] = key;
+        heapIds[i] = id;
+        return top;
+    }
+
+    @Override
+    public int getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    @Override
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
@@ -0,0 +1,82 @@
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+// Plain breadth-first search from the start word, stopping as soon as the target is discovered.
+// The baseline the other solvers are measured against.
+public class BfsSolver implements LadderSolver {
+
+    private static final int UNVISITED = -1;
+
+    private final WordGraph graph;
+    private int nodesExpanded;
+    private long elapsedNanos;
+
+    public BfsSolver(WordGraph graph) {
+        this.graph = graph;
+    }
+
+    @Override
+    public int[] solve(int startId, int targetId, BooleanSupplier cancelled) {
+        long started = System.nanoTime();
+        nodesExpanded = 0;
+        int[] path = search(startId, targetId, cancelled);
+        elapsedNanos = System.nanoTime() - started;
+        return path;
+    }
+
+    private int[] search(int startId, int targetId, BooleanSupplier cancelled) {
+        if (startId < 0 || targetId < 0) return null;
+        if (startId == targetId) return new int[]{startId};
+
+        int size = graph.size();
+        int[] parent = new int[size];
+        int[] depth = new int[size];
+        Arrays.fill(parent, UNVISITED);
+        int[] queue = new int[size];
+        parent[startId] = startId;
+        queue[0] = startId;
+        int head = 0;
+        int tail = 1;
+        int layerEnd = 1;
+        while (head < tail) {
+            // Poll once per layer, like the bidirectional search.
+            if (head == layerEnd) {
+                if (cancelled.getAsBoolean()) return null;
+                layerEnd = tail;
+            }
+            int current = queue[head++];
+            nodesExpanded++;
+            for (int neighbor : graph.neighbors(current)) {
+                if (parent[neighbor] != UNVISITED) continue;
+                parent[neighbor] = current;
+                depth[neighbor] = depth[current] + 1;
+                if (neighbor == targetId) {
+                    return buildPath(parent, depth[neighbor], targetId);
+                }
+                queue[tail++] = neighbor;
+            }
+        }
+        return null;
+    }
+
+    // Follows parents back from the end of a ladder of the given length.
+    static int[] buildPath(int[] parent, int length, int endId) {
+        int[] path = new int[length + 1];
+        int id = endId;
+        for (int i = length; i >= 0; i--) {
+            path[i] = id;
+            id = parent[id];
+        }
+        return path;
+    }
+
+    @Override
+    public int getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    @Override
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
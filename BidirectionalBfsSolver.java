@@ -0,0 +1,135 @@
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+// Shortest word-ladder search that grows one BFS layer at a time from both ends,
+// always expanding the smaller frontier. Predecessors are kept in primitive int
+// arrays and the path is only materialised once, at the meeting point.
+public class BidirectionalBfsSolver implements LadderSolver {
+
+    private static final int UNVISITED = -1;
+
+    private final WordGraph graph;
+
+    // Edge where the two searches met: fwdSide is reached from the start, bwdSide from the target.
+    private int meetFwdSide;
+    private int meetBwdSide;
+    private int nodesExpanded;
+    private long elapsedNanos;
+
+    public BidirectionalBfsSolver(WordGraph graph) {
+        this.graph = graph;
+    }
+
+    // Polls cancelled before each layer and gives up (returning null) once it is true.
+    @Override
+    public int[] solve(int startId, int targetId, BooleanSupplier cancelled) {
+        long started = System.nanoTime();
+        nodesExpanded = 0;
+        int[] path = search(startId, targetId, cancelled);
+        elapsedNanos = System.nanoTime() - started;
+        return path;
+    }
+
+    private int[] search(int startId, int targetId, BooleanSupplier cancelled) {
+        if (startId < 0 || targetId < 0) return null;
+        if (startId == targetId) return new int[]{startId};
+
+        int size = graph.size();
+        int[] parentFwd = new int[size];
+        int[] parentBwd = new int[size];
+        int[] depthFwd = new int[size];
+        int[] depthBwd = new int[size];
+        Arrays.fill(parentFwd, UNVISITED);
+        Arrays.fill(parentBwd, UNVISITED);
+        int[] queueFwd = new int[size];
+        int[] queueBwd = new int[size];
+
+        parentFwd[startId] = startId;
+        parentBwd[targetId] = targetId;
+        queueFwd[0] = startId;
+        queueBwd[0] = targetId;
+        int headFwd = 0, tailFwd = 1;
+        int headBwd = 0, tailBwd = 1;
+
+        while (headFwd < tailFwd && headBwd < tailBwd) {
+            if (cancelled.getAsBoolean()) return null;
+            boolean met;
+            if (tailFwd - headFwd <= tailBwd - headBwd) {
+                int layerEnd = tailFwd;
+                tailFwd = expandLayer(queueFwd, headFwd, layerEnd, parentFwd, depthFwd, parentBwd, depthBwd);
+                headFwd = layerEnd;
+                met = meetFwdSide != UNVISITED;
+            } else {
+                int layerEnd = tailBwd;
+                tailBwd = expandLayer(queueBwd, headBwd, layerEnd, parentBwd, depthBwd, parentFwd, depthFwd);
+                headBwd = layerEnd;
+                met = meetFwdSide != UNVISITED;
+                if (met) {
+                    // expandLayer records the meeting from the expanding side's point of view.
+                    int swap = meetFwdSide;
+                    meetFwdSide = meetBwdSide;
+                    meetBwdSide = swap;
+                }
+            }
+            if (met) {
+                return buildPath(parentFwd, depthFwd, parentBwd, depthBwd);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    @Override
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    // Expands the layer [head, layerEnd), appending newly discovered words to the queue, and
+    // returns the new tail. If the other search has already reached a neighbour, the edge giving
+    // the shortest total ladder over the whole layer is recorded as the meeting point.
+    private int expandLayer(int[] queue, int head, int layerEnd, int[] parent, int[] depth,
+                            int[] otherParent, int[] otherDepth) {
+        meetFwdSide = UNVISITED;
+        meetBwdSide = UNVISITED;
+        int bestLength = Integer.MAX_VALUE;
+        int tail = layerEnd;
+        for (int i = head; i < layerEnd; i++) {
+            int current = queue[i];
+            nodesExpanded++;
+            for (int neighbor : graph.neighbors(current)) {
+                if (otherParent[neighbor] != UNVISITED) {
+                    int length = depth[current] + 1 + otherDepth[neighbor];
+                    if (length < bestLength) {
+                        bestLength = length;
+                        meetFwdSide = current;
+                        meetBwdSide = neighbor;
+                    }
+                } else if (parent[neighbor] == UNVISITED) {
+                    parent[neighbor] = current;
+                    depth[neighbor] = depth[current] + 1;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return tail;
+    }
+
+    private int[] buildPath(int[] parentFwd, int[] depthFwd, int[] parentBwd, int[] depthBwd) {
+        int[] path = new int[depthFwd[meetFwdSide] + 1 + depthBwd[meetBwdSide] + 1];
+        int index = depthFwd[meetFwdSide];
+        for (int id = meetFwdSide; ; id = parentFwd[id]) {
+            path[index--] = id;
+            if (parentFwd[id] == id) break;
+        }
+        index = depthFwd[meetFwdSide] + 1;
+        for (int id = meetBwdSide; ; id = parentBwd[id]) {
+            path[index++] = id;
+            if (parentBwd[id] == id) break;
+        }
+        return path;
+    }
+}
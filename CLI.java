@@ -6,6 +6,7 @@ import java.util.Scanner;
 public class CLI {
     private Model model;
     private Scanner scanner;
+    private GameJournal journal;
 
     public CLI() {
         this.model = new Model();
@@ -13,21 +14,30 @@ public class CLI {
         // this.model.setUseRandomWords(true);
         this.scanner = new Scanner(System.in);
 
-        // Observer logic (can be kept as is or adjusted as needed)
-        model.addObserver((o, arg) -> {
-            String argument = (arg instanceof String) ? (String) arg : "";
+        // With -Dweaver.journal=<file>, resume the game left open last time and journal this one.
+        this.journal = GameJournal.openConfigured();
+        if (journal != null) {
+            GameJournal.GameState saved = journal.getRecoveredGames().get("cli");
+            if (saved != null) {
+                saved.restoreInto(model);
+            }
+            journal.attach("cli", model);
+        }
 
-            // CLI can update display or provide specific messages based on the argument
+        // Listener logic (can be kept as is or adjusted as needed)
+        model.addListener(events -> {
+            // CLI can update display or provide specific messages based on the events
             // But the main game state display is controlled by the main loop to avoid duplicate printing.
             // Here we can handle specific notifications like game reset.
-
-            if ("reset".equals(argument) || argument.startsWith("reset_error")) {
-                System.out.println("\n--- Game has been reset/re-initialized ---");
-                // displayGameState(); // Main loop will handle displaying state at the start of the next iteration
-            } else if (argument.startsWith("flag_changed_")) {
-                System.out.println("\n--- Settings changed: " + argument + " ---");
+            for (ModelEvent event : events) {
+                if (event.isReset()) {
+                    System.out.println("\n--- Game has been reset/re-initialized ---");
+                    // displayGameState(); // Main loop will handle displaying state at the start of the next iteration
+                } else if (event.isFlagChange()) {
+                    if (Log.DEBUG) Log.debug("CLI listener: Settings changed: " + event);
+                }
+                // Other event types can be ignored as CLI's error/state handling is mainly in the main loop
             }
-            // Other types of 'arg' can be ignored as CLI's error/state handling is mainly in the main loop
         });
     }
 
@@ -44,6 +54,7 @@ public class CLI {
 
             if (model.hasWon()) {
                 System.out.println("Congratulations! You've won!");
+                System.out.println("Score: " + model.getScore());
                 System.out.print("Play again? (y/n): ");
                 if (scanner.nextLine().trim().toLowerCase().startsWith("y")) {
                     // When playing again, Model's initializeGame will use the current state of useRandomWords.
@@ -56,7 +67,7 @@ public class CLI {
                 }
             }
 
-            System.out.print("Enter your word (or 'quit' to exit): ");
+            System.out.print("Enter your word ('hint' for a suggestion, 'undo'/'redo' to change your moves, 'quit' to exit): ");
             String input = scanner.nextLine().trim();
 
             if (input.equalsIgnoreCase("quit")) {
@@ -64,6 +75,22 @@ public class CLI {
                 break;
             }
 
+            if (input.equalsIgnoreCase("hint")) {
+                String hint = model.suggestNextMove(model.getCurrentWord());
+                System.out.println(hint != null ? "Hint: try " + hint.toUpperCase() : "No hint available.");
+                continue;
+            }
+
+            if (input.equalsIgnoreCase("undo")) {
+                if (!model.undo()) System.out.println("Nothing to undo.");
+                continue;
+            }
+
+            if (input.equalsIgnoreCase("redo")) {
+                if (!model.redo()) System.out.println("Nothing to redo.");
+                continue;
+            }
+
             if (input.length() != 4) {
                 if (model.isShowErrorMessage()) {
                     System.out.println("Error: Please enter a 4-letter word.");
@@ -75,9 +102,9 @@ public class CLI {
 
             if (!moveSuccessful) {
                 if (model.isShowErrorMessage()) {
-                    // Model's makeMove notifies observers with "invalid_move_feedback" on failure if showErrorMessage is true.
-                    // The observer can handle this, or CLI can provide its own message here.
-                    // To avoid relying on the observer printing internal messages unsuitable for CLI, CLI handles it directly.
+                    // Model's makeMove publishes a MOVE_REJECTED event on failure.
+                    // The listener can handle this, or CLI can provide its own message here.
+                    // To keep all game-state output in the main loop, CLI handles it directly.
                     System.out.println("Error: That move is not valid.");
                 }
             }
@@ -86,6 +113,9 @@ public class CLI {
 
         System.out.println("Thanks for playing Weaver!");
         scanner.close();
+        if (journal != null) {
+            journal.close();
+        }
     }
 
     private void displayGameState() {
@@ -101,6 +131,12 @@ public class CLI {
                 moveNumber++;
             }
         }
+        int movesLeft = model.getMovesRemaining();
+        if (movesLeft > 0) {
+            System.out.println("Optimal moves left: " + movesLeft);
+        } else if (movesLeft < 0) {
+            System.out.println("The target cannot be reached from here.");
+        }
         System.out.println("------------------------------");
     }
 
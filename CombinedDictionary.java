@@ -0,0 +1,37 @@
+import java.util.List;
+
+// Word list of the "dawg" backend (see Lexicon.BACKEND). Four-letter words are answered from a
+// dictionary version's bitset, so words added or removed at runtime are seen here too; words of
+// every other length come from a DawgDictionary built from the same file without them. The two
+// sets never overlap, so each query goes to one side or simply combines both. One is created per
+// dictionary version and holds only the two references.
+public class CombinedDictionary implements WordDictionary {
+
+    private final PackedDictionary gameWords;
+    private final DawgDictionary otherWords;
+
+    public CombinedDictionary(PackedDictionary gameWords, DawgDictionary otherWords) {
+        this.gameWords = gameWords;
+        this.otherWords = otherWords;
+    }
+
+    @Override
+    public boolean contains(String word) {
+        return word.length() == PackedWord.LENGTH ? gameWords.contains(word) : otherWords.contains(word);
+    }
+
+    @Override
+    public boolean hasPrefix(String prefix) {
+        return gameWords.hasPrefix(prefix) || otherWords.hasPrefix(prefix);
+    }
+
+    @Override
+    public List<String> matches(String pattern) {
+        return pattern.length() == PackedWord.LENGTH ? gameWords.matches(pattern) : otherWords.matches(pattern);
+    }
+
+    @Override
+    public int size() {
+        return gameWords.size() + otherWords.size();
+    }
+}
@@ -8,6 +8,7 @@ public class Controller {
     }
     
     public void processInput(String input) {
+        if (Log.DEBUG) Log.debug("Controller processInput: Received input '" + input + "'");
         if (input == null || input.length() != 4) {
             if (model.isShowErrorMessage()) {
                 view.showError("Please enter a 4-letter word");
@@ -17,16 +18,17 @@ public class Controller {
         
         input = input.toLowerCase();
         if (!model.isValidWord(input)) {
+            Log.debug("Controller processInput: Rejected, not a dictionary word.");
             if (model.isShowErrorMessage()) {
                 view.showError("Not a valid word");
             }
             return;
         }
         
-        String prevWord = model.getGameHistory().isEmpty() ? model.getStartWord() : 
-                         model.getGameHistory().get(model.getGameHistory().size() - 1);
+        String prevWord = model.getCurrentWord();
         
         if (!model.isValidMove(prevWord, input)) {
+            Log.debug("Controller processInput: Rejected, not a one-letter change.");
             if (model.isShowErrorMessage()) {
                 view.showError("You can only change one letter at a time");
             }
@@ -40,6 +42,24 @@ public class Controller {
         }
     }
     
+    public void requestHint() {
+        String hint = model.suggestNextMove(model.getCurrentWord());
+        if (Log.DEBUG) Log.debug("Controller requestHint: Suggesting '" + hint + "'");
+        view.showHint(hint);
+    }
+
+    public void undoMove() {
+        if (!model.undo()) {
+            Log.debug("Controller undoMove: Nothing to undo.");
+        }
+    }
+
+    public void redoMove() {
+        if (!model.redo()) {
+            Log.debug("Controller redoMove: Nothing to redo.");
+        }
+    }
+
     public void resetGame() {
         model.initializeGame();
     }
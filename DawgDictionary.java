@@ -0,0 +1,270 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+// Word list of any length stored as a minimised trie (a DAWG): shared prefixes and shared
+// suffixes are each stored once. After building, the whole automaton is one int[] with one int
+// per edge, which for natural-language lists takes a small fraction of the memory of a
+// HashSet<String>. Membership and prefix checks walk at most one edge list per letter.
+//
+// Edge layout: bits 0-4 letter, bit 5 "last edge of this node", bit 6 "a word ends here",
+// bits 7-31 index of the first edge of the target node (0 when it has no edges). A node is
+// the run of edges starting at its index; the root starts at ROOT.
+public class DawgDictionary implements WordDictionary {
+
+    private static final int LETTER_MASK = 0x1F;
+    private static final int LAST_EDGE = 1 << 5;
+    private static final int TERMINAL = 1 << 6;
+    private static final int TARGET_SHIFT = 7;
+    private static final int ROOT = 1;
+
+    private final int[] edges;
+    private final int size;
+
+    private DawgDictionary(int[] edges, int size) {
+        this.edges = edges;
+        this.size = size;
+    }
+
+    // Builds from words in any order; entries that are not made of letters a-z are skipped.
+    public static DawgDictionary of(List<String> words) {
+        List<String> sorted = new ArrayList<>(words.size());
+        for (String word : words) {
+            String lower = word.trim().toLowerCase();
+            if (isLetters(lower)) sorted.add(lower);
+        }
+        sorted.sort(null);
+        Builder builder = new Builder();
+        String previous = null;
+        for (String word : sorted) {
+            if (!word.equals(previous)) builder.add(word);
+            previous = word;
+        }
+        return builder.build();
+    }
+
+    // Reads one word per line.
+    public static DawgDictionary load(String filename) throws IOException {
+        return load(filename, line -> true);
+    }
+
+    // Reads one word per line, keeping the lines that pass the filter.
+    public static DawgDictionary load(String filename, Predicate<String> keep) throws IOException {
+        List<String> words = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (keep.test(line)) words.add(line);
+            }
+        }
+        return of(words);
+    }
+
+    private static boolean isLetters(String word) {
+        if (word.isEmpty()) return false;
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c < 'a' || c > 'z') return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean contains(String word) {
+        int edge = walk(word);
+        return edge > 0 && (edges[edge] & TERMINAL) != 0;
+    }
+
+    @Override
+    public boolean hasPrefix(String prefix) {
+        return prefix.isEmpty() ? size > 0 : walk(prefix) > 0;
+    }
+
+    // Index of the edge reached by the last letter of the word, or -1.
+    private int walk(String word) {
+        if (word == null || word.isEmpty() || size == 0) return -1;
+        int node = ROOT;
+        int edge = -1;
+        for (int i = 0; i < word.length(); i++) {
+            if (node == 0) return -1;
+            int letter = Character.toLowerCase(word.charAt(i)) - 'a';
+            edge = findEdge(node, letter);
+            if (edge < 0) return -1;
+            node = edges[edge] >>> TARGET_SHIFT;
+        }
+        return edge;
+    }
+
+    private int findEdge(int node, int letter) {
+        for (int edge = node; ; edge++) {
+            int value = edges[edge];
+            if ((value & LETTER_MASK) == letter) return edge;
+            if ((value & LAST_EDGE) != 0) return -1;
+        }
+    }
+
+    @Override
+    public List<String> matches(String pattern) {
+        List<String> result = new ArrayList<>();
+        if (size > 0 && !pattern.isEmpty()) {
+            collectMatches(pattern.toLowerCase(), ROOT, new char[pattern.length()], 0, result);
+        }
+        return result;
+    }
+
+    private void collectMatches(String pattern, int node, char[] word, int position, List<String> result) {
+        char wanted = pattern.charAt(position);
+        boolean wildcard = wanted == '?' || wanted == '.';
+        for (int edge = node; ; edge++) {
+            int value = edges[edge];
+            char letter = (char) ('a' + (value & LETTER_MASK));
+            if (wildcard || letter == wanted) {
+                word[position] = letter;
+                int target = value >>> TARGET_SHIFT;
+                if (position == word.length - 1) {
+                    if ((value & TERMINAL) != 0) result.add(new String(word));
+                } else if (target != 0) {
+                    collectMatches(pattern, target, word, position + 1, result);
+                }
+            }
+            if ((value & LAST_EDGE) != 0) return;
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // Number of edges in the automaton; memory use is four bytes per edge.
+    public int edgeCount() {
+        return edges.length - 1;
+    }
+
+    // Incremental construction from sorted input (Daciuk et al.): after each word, the part of
+    // the previous word's path that the new word no longer shares is minimised by replacing
+    // each node with an equal, already registered one. Memory during the build is the
+    // minimised automaton plus one word's path.
+    private static final class Builder {
+
+        private static final class Node {
+            boolean terminal;
+            byte[] letters = new byte[0];
+            Node[] children = new Node[0];
+            int index = -1;
+            private int hash;
+
+            void add(int letter, Node child) {
+                int n = letters.length;
+                letters = Arrays.copyOf(letters, n + 1);
+                children = Arrays.copyOf(children, n + 1);
+                letters[n] = (byte) letter;
+                children[n] = child;
+            }
+
+            // Children are already canonical when a node is registered, so they compare by identity.
+            @Override
+            public boolean equals(Object o) {
+                if (!(o instanceof Node)) return false;
+                Node other = (Node) o;
+                if (terminal != other.terminal || !Arrays.equals(letters, other.letters)) return false;
+                for (int i = 0; i < children.length; i++) {
+                    if (children[i] != other.children[i]) return false;
+                }
+                return true;
+            }
+
+            @Override
+            public int hashCode() {
+                if (hash == 0) {
+                    int h = terminal ? 1 : 0;
+                    h = 31 * h + Arrays.hashCode(letters);
+                    for (Node child : children) {
+                        h = 31 * h + System.identityHashCode(child);
+                    }
+                    hash = h == 0 ? 1 : h;
+                }
+                return hash;
+            }
+        }
+
+        private final Node root = new Node();
+        private final Map<Node, Node> register = new HashMap<>();
+        // Path of the previous word: path.get(i) is the node reached after i + 1 letters.
+        private final List<Node> path = new ArrayList<>();
+        private String previous = "";
+        private int words;
+
+        void add(String word) {
+            int common = 0;
+            while (common < word.length() && common < previous.length() && word.charAt(common) == previous.charAt(common)) {
+                common++;
+            }
+            minimize(common);
+            Node node = common == 0 ? root : path.get(common - 1);
+            for (int i = common; i < word.length(); i++) {
+                Node child = new Node();
+                node.add(word.charAt(i) - 'a', child);
+                path.add(child);
+                node = child;
+            }
+            node.terminal = true;
+            previous = word;
+            words++;
+        }
+
+        // Replaces the path nodes below depth downTo by registered equivalents, deepest first.
+        private void minimize(int downTo) {
+            for (int i = path.size() - 1; i >= downTo; i--) {
+                Node child = path.remove(i);
+                Node parent = i == 0 ? root : path.get(i - 1);
+                Node existing = register.putIfAbsent(child, child);
+                if (existing != null) {
+                    parent.children[parent.children.length - 1] = existing;
+                }
+            }
+        }
+
+        DawgDictionary build() {
+            minimize(0);
+            // Give every node with edges a contiguous block, then fill in the edges.
+            List<Node> order = new ArrayList<>();
+            int next = ROOT;
+            order.add(root);
+            root.index = root.letters.length == 0 ? 0 : next;
+            next += root.letters.length;
+            for (int i = 0; i < order.size(); i++) {
+                for (Node child : order.get(i).children) {
+                    if (child.index >= 0) continue;
+                    if (child.letters.length == 0) {
+                        child.index = 0;
+                    } else {
+                        child.index = next;
+                        next += child.letters.length;
+                        order.add(child);
+                    }
+                }
+            }
+            if ((long) next >= (1L << (32 - TARGET_SHIFT))) {
+                throw new IllegalStateException("Word list too large for a DAWG: " + next + " edges");
+            }
+            int[] edges = new int[next];
+            for (Node node : order) {
+                for (int i = 0; i < node.letters.length; i++) {
+                    Node child = node.children[i];
+                    int value = (child.index << TARGET_SHIFT) | node.letters[i];
+                    if (child.terminal) value |= TERMINAL;
+                    if (i == node.letters.length - 1) value |= LAST_EDGE;
+                    edges[node.index + i] = value;
+                }
+            }
+            return new DawgDictionary(edges, words);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Binary copy of a loaded dictionary and its word graph, stored next to the text file
+// (dictionary.txt -> dictionary.bin) and read back through a memory mapping.
+//
+// Layout (big-endian):
+//   int  MAGIC, int VERSION
+//   long source file length, long source file last-modified time
+//   int  word count N, int neighbour entry count E
+//   int[N]     packed words, sorted
+//   int[N + 1] neighbour offsets into the entry array
+//   int[E]     neighbour ids
+//
+// A snapshot is only used if its header matches the current text file and the text file is
+// not newer than the snapshot; otherwise the caller parses the text and writes a fresh one.
+public final class DictionarySnapshot {
+
+    private static final int MAGIC = 0x57565231; // "WVR1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 4 + 4;
+
+    private DictionarySnapshot() {
+    }
+
+    public static File snapshotFileFor(String textFilename) {
+        String base = textFilename.endsWith(".txt") ? textFilename.substring(0, textFilename.length() - 4) : textFilename;
+        return new File(base + ".bin");
+    }
+
+    // Returns the graph stored for the text file, or null if there is no usable up-to-date snapshot.
+    public static WordGraph read(String textFilename) {
+        File source = new File(textFilename);
+        File snapshot = snapshotFileFor(textFilename);
+        if (!source.isFile() || !snapshot.isFile() || source.lastModified() > snapshot.lastModified()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(snapshot.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) return null;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+                    || buffer.getLong() != source.length() || buffer.getLong() != source.lastModified()) {
+                Log.debug(() -> "DictionarySnapshot: " + snapshot + " does not match " + source + ", ignoring it.");
+                return null;
+            }
+            int wordCount = buffer.getInt();
+            int entryCount = buffer.getInt();
+            long expectedBytes = HEADER_BYTES + 4L * (wordCount + wordCount + 1 + entryCount);
+            if (wordCount < 0 || entryCount < 0 || channel.size() != expectedBytes) {
+                Log.debug(() -> "DictionarySnapshot: " + snapshot + " is truncated or corrupt, ignoring it.");
+                return null;
+            }
+
+            IntBuffer ints = buffer.asIntBuffer();
+            int[] packedWords = new int[wordCount];
+            int[] offsets = new int[wordCount + 1];
+            int[] entries = new int[entryCount];
+            ints.get(packedWords).get(offsets).get(entries);
+
+            // The header can be intact over a damaged body, so check everything the graph and the
+            // solvers rely on: sorted valid words, offsets running from 0 to E, and sorted rows
+            // of in-range ids that are one letter away from their word.
+            if (offsets[0] != 0 || offsets[wordCount] != entryCount) return corrupt(snapshot);
+            int[][] neighbors = new int[wordCount][];
+            for (int id = 0; id < wordCount; id++) {
+                int packed = packedWords[id];
+                if (packed < 0 || packed >= PackedWord.SPACE || (id > 0 && packed <= packedWords[id - 1])
+                        || offsets[id + 1] < offsets[id]) {
+                    return corrupt(snapshot);
+                }
+            }
+            for (int id = 0; id < wordCount; id++) {
+                int[] row = Arrays.copyOfRange(entries, offsets[id], offsets[id + 1]);
+                for (int i = 0; i < row.length; i++) {
+                    int neighbor = row[i];
+                    if (neighbor < 0 || neighbor >= wordCount || (i > 0 && neighbor <= row[i - 1])
+                            || PackedWord.differences(packedWords[id], packedWords[neighbor]) != 1) {
+                        return corrupt(snapshot);
+                    }
+                }
+                neighbors[id] = row;
+            }
+            Log.debug(() -> "DictionarySnapshot: Mapped " + wordCount + " words from " + snapshot);
+            return new WordGraph(packedWords, neighbors);
+        } catch (IOException | RuntimeException e) {
+            Log.debug(() -> "DictionarySnapshot: Could not read " + snapshot + ": " + e);
+            return null;
+        }
+    }
+
+    private static WordGraph corrupt(File snapshot) {
+        Log.debug(() -> "DictionarySnapshot: " + snapshot + " has a corrupt body, ignoring it.");
+        return null;
+    }
+
+    // Writes the snapshot atomically (temp file + rename). Failures are logged and ignored,
+    // since the text file remains the source of truth.
+    public static void write(String textFilename, WordGraph graph) {
+        File source = new File(textFilename);
+        if (!source.isFile()) return;
+        Path snapshot = snapshotFileFor(textFilename).toPath();
+        Path temp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+
+        int wordCount = graph.size();
+        int entryCount = 0;
+        for (int id = 0; id < wordCount; id++) {
+            entryCount += graph.degree(id);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 4 * (wordCount + wordCount + 1 + entryCount));
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(source.length()).putLong(source.lastModified());
+        buffer.putInt(wordCount).putInt(entryCount);
+        for (int id = 0; id < wordCount; id++) {
+            buffer.putInt(graph.packedAt(id));
+        }
+        int offset = 0;
+        for (int id = 0; id < wordCount; id++) {
+            buffer.putInt(offset);
+            offset += graph.degree(id);
+        }
+        buffer.putInt(offset);
+        for (int id = 0; id < wordCount; id++) {
+            for (int neighbor : graph.neighbors(id)) {
+                buffer.putInt(neighbor);
+            }
+        }
+        buffer.flip();
+
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Log.debug(() -> "DictionarySnapshot: Wrote " + wordCount + " words to " + snapshot);
+        } catch (IOException e) {
+            Log.info(() -> "DictionarySnapshot: Could not write " + snapshot + ": " + e.getMessage());
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // Nothing else to clean up.
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+import java.util.Arrays;
+
+// Result of one BFS from a source word: every reachable word id grouped by its distance
+// from the source. Words at distance d are order[layerStart[d] .. layerStart[d + 1]).
+// Because the word graph is undirected these are also the distances *to* the source.
+public class DistanceLayers {
+
+    public static final int UNREACHABLE = -1;
+
+    private final int source;
+    private final int[] order;
+    private final int[] layerStart;
+    private final int[] distance;
+
+    public DistanceLayers(WordGraph graph, int source) {
+        this.source = source;
+        int size = graph.size();
+        distance = new int[size];
+        Arrays.fill(distance, UNREACHABLE);
+        int[] queue = new int[size];
+        int[] starts = new int[size + 1];
+        int layers = 0;
+
+        distance[source] = 0;
+        queue[0] = source;
+        int head = 0;
+        int tail = 1;
+        while (head < tail) {
+            starts[layers++] = head;
+            int layerEnd = tail;
+            for (; head < layerEnd; head++) {
+                int current = queue[head];
+                for (int neighbor : graph.neighbors(current)) {
+                    if (distance[neighbor] == UNREACHABLE) {
+                        distance[neighbor] = distance[current] + 1;
+                        queue[tail++] = neighbor;
+                    }
+                }
+            }
+        }
+        starts[layers] = tail;
+        order = Arrays.copyOf(queue, tail);
+        layerStart = Arrays.copyOf(starts, layers + 1);
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    // Distance from the source to the word id, or UNREACHABLE. Layers carried over to a later
+    // graph version (see PuzzleGenerator) know nothing of words added since, which cannot be in
+    // the source's unchanged component anyway.
+    public int distanceTo(int id) {
+        return id >= 0 && id < distance.length ? distance[id] : UNREACHABLE;
+    }
+
+    // Largest distance from the source to any reachable word (its eccentricity).
+    public int maxDistance() {
+        return layerStart.length - 2;
+    }
+
+    public int layerSize(int distance) {
+        if (distance < 0 || distance > maxDistance()) return 0;
+        return layerStart[distance + 1] - layerStart[distance];
+    }
+
+    public int wordAt(int distance, int index) {
+        return order[layerStart[distance] + index];
+    }
+
+    public int reachableCount() {
+        return order.length;
+    }
+}
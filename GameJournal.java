@@ -0,0 +1,584 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+// Durable record of every game's state, so games survive the CLI, GUI or server exiting.
+//
+// State changes are appended as small binary records to <base>.<generation> through a
+// FileChannel. Games feed it through their ModelEvents (see attach), which only queue the
+// record: one writer thread drains everything queued, writes it with a single write and,
+// optionally, one force (group commit). A move therefore never waits for the disk.
+//
+// Every snapshotEvery records the writer saves the state of all open games to <base>.snapshot
+// (written to a temporary file, then atomically moved) and starts a new, empty generation of
+// the journal, so recovery only ever replays one snapshot plus a bounded tail. A torn record at
+// the end of the tail (e.g. after a crash mid-write) fails its CRC and is dropped.
+//
+// Record layout: int payload length, int CRC32 of the payload, payload = byte type,
+// session id, then the type's fields. Strings are a short byte count followed by UTF-8 bytes.
+public class GameJournal implements AutoCloseable {
+
+    // State of one game as rebuilt from the journal.
+    public static class GameState {
+        public final String startWord;
+        public final String targetWord;
+        public final List<String> history;
+        public final boolean showErrorMessage;
+        public final boolean showPath;
+        public final boolean useRandomWords;
+
+        GameState(String startWord, String targetWord, List<String> history,
+                  boolean showErrorMessage, boolean showPath, boolean useRandomWords) {
+            this.startWord = startWord;
+            this.targetWord = targetWord;
+            this.history = Collections.unmodifiableList(history);
+            this.showErrorMessage = showErrorMessage;
+            this.showPath = showPath;
+            this.useRandomWords = useRandomWords;
+        }
+
+        // Puts the game back into the model: flags, words, then each move in order.
+        // Returns false if the words are no longer in the dictionary or a move is now invalid.
+        public boolean restoreInto(Model model) {
+            if (model.isUseRandomWords() != useRandomWords) model.setUseRandomWords(useRandomWords);
+            model.setShowErrorMessage(showErrorMessage);
+            model.setShowPath(showPath);
+            if (startWord == null) return true;
+            try {
+                model.initializeGame(startWord, targetWord);
+            } catch (IllegalArgumentException e) {
+                Log.info("GameJournal: Cannot restore " + startWord + " -> " + targetWord + ": " + e.getMessage());
+                return false;
+            }
+            for (String word : history) {
+                if (!model.makeMove(word)) {
+                    Log.info("GameJournal: Stopped restoring " + startWord + " -> " + targetWord + " at invalid move '" + word + "'");
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final int SNAPSHOT_MAGIC = 0x57564a53; // "WVJS"
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int DEFAULT_SNAPSHOT_EVERY = 10000;
+
+    private static final byte START = 1;
+    private static final byte MOVE = 2;
+    private static final byte FLAGS = 3;
+    private static final byte END = 4;
+    private static final byte UNDO = 5;
+    // Control entries for the writer thread; never written to the journal.
+    private static final byte SNAPSHOT = -1;
+    private static final byte CLOSE = -2;
+
+    private static final int SHOW_ERRORS = 1;
+    private static final int SHOW_PATH = 2;
+    private static final int RANDOM_WORDS = 4;
+
+    private static final class Entry {
+        final byte type;
+        final String session;
+        final String first;
+        final String second;
+        final int flags;
+
+        Entry(byte type, String session, String first, String second, int flags) {
+            this.type = type;
+            this.session = session;
+            this.first = first;
+            this.second = second;
+            this.flags = flags;
+        }
+    }
+
+    private static final class MutableState {
+        String startWord;
+        String targetWord;
+        final List<String> history = new ArrayList<>();
+        int flags = SHOW_ERRORS;
+
+        GameState freeze() {
+            return new GameState(startWord, targetWord, new ArrayList<>(history),
+                    (flags & SHOW_ERRORS) != 0, (flags & SHOW_PATH) != 0, (flags & RANDOM_WORDS) != 0);
+        }
+    }
+
+    private final Path base;
+    private final boolean forceEachBatch;
+    private final int snapshotEvery;
+    // Owned by the writer thread once the journal is open.
+    private final Map<String, MutableState> states = new LinkedHashMap<>();
+    private final Map<String, GameState> recovered;
+    private final LinkedBlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong enqueued = new AtomicLong();
+    private final Object writtenLock = new Object();
+    // Entries written (and forced, if enabled); guarded by writtenLock, as is failure.
+    private long written;
+    // The write or force that stopped the journal, or null.
+    private IOException failure;
+    private final Thread writer;
+    private FileChannel channel;
+    private long generation;
+    private int sinceSnapshot;
+    private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    private final CRC32 crc = new CRC32();
+    // Set under the queue's lock, so nothing is queued behind CLOSE or after a failure.
+    private volatile boolean closed;
+
+    private GameJournal(Path base, boolean forceEachBatch, int snapshotEvery) throws IOException {
+        this.base = base;
+        this.forceEachBatch = forceEachBatch;
+        this.snapshotEvery = snapshotEvery;
+        long started = System.nanoTime();
+        recover();
+        Map<String, GameState> games = new LinkedHashMap<>();
+        for (Map.Entry<String, MutableState> state : states.entrySet()) {
+            games.put(state.getKey(), state.getValue().freeze());
+        }
+        recovered = Collections.unmodifiableMap(games);
+        if (Log.DEBUG) Log.debug("GameJournal: Recovered " + recovered.size() + " games from " + base + " in " + (System.nanoTime() - started) / 1_000_000 + " ms");
+        writer = new Thread(this::writeLoop, "weaver-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Opens (or creates) the journal at base, forcing every batch to disk.
+    public static GameJournal open(Path base) throws IOException {
+        return new GameJournal(base, true, DEFAULT_SNAPSHOT_EVERY);
+    }
+
+    public static GameJournal open(Path base, boolean forceEachBatch, int snapshotEvery) throws IOException {
+        if (snapshotEvery < 1) throw new IllegalArgumentException("snapshotEvery must be positive: " + snapshotEvery);
+        return new GameJournal(base, forceEachBatch, snapshotEvery);
+    }
+
+    // Opens the journal named by the "weaver.journal" system property, or returns null when it
+    // is not set or cannot be opened.
+    public static GameJournal openConfigured() {
+        String path = System.getProperty("weaver.journal");
+        if (path == null || path.trim().isEmpty()) return null;
+        try {
+            return open(Paths.get(path.trim()));
+        } catch (IOException e) {
+            Log.error("GameJournal: Cannot open journal " + path + ": " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    // Games that were open when the journal was last closed (or the process died), by session id.
+    public Map<String, GameState> getRecoveredGames() {
+        return recovered;
+    }
+
+    // Records the model's current game and then every change it publishes.
+    public void attach(String session, Model model) {
+        recordFlags(session, model.isShowErrorMessage(), model.isShowPath(), model.isUseRandomWords());
+        recordStart(session, model.getStartWord(), model.getTargetWord());
+        for (String word : model.getGameHistory()) {
+            recordMove(session, word);
+        }
+        listen(session, model);
+    }
+
+    // Records every change the model publishes from now on; use after restoring a recovered game.
+    public void listen(String session, Model model) {
+        model.addListener(events -> {
+            for (ModelEvent event : events) {
+                switch (event.type) {
+                    case GAME_RESET:
+                    case GAME_RESET_ERROR:
+                        recordStart(session, event.word, event.targetWord);
+                        break;
+                    case MOVE_ACCEPTED:
+                    case MOVE_REDONE:
+                        recordMove(session, event.word);
+                        break;
+                    case MOVE_UNDONE:
+                        recordUndo(session);
+                        break;
+                    case SHOW_ERRORS_CHANGED:
+                    case SHOW_PATH_CHANGED:
+                    case RANDOM_WORDS_CHANGED:
+                        recordFlags(session, model.isShowErrorMessage(), model.isShowPath(), model.isUseRandomWords());
+                        break;
+                    default:
+                        break;
+                }
+            }
+        });
+    }
+
+    public void recordStart(String session, String startWord, String targetWord) {
+        enqueue(new Entry(START, session, startWord, targetWord, 0));
+    }
+
+    public void recordMove(String session, String word) {
+        enqueue(new Entry(MOVE, session, word, null, 0));
+    }
+
+    // The last move was taken back.
+    public void recordUndo(String session) {
+        enqueue(new Entry(UNDO, session, null, null, 0));
+    }
+
+    public void recordFlags(String session, boolean showErrorMessage, boolean showPath, boolean useRandomWords) {
+        int flags = (showErrorMessage ? SHOW_ERRORS : 0) | (showPath ? SHOW_PATH : 0) | (useRandomWords ? RANDOM_WORDS : 0);
+        enqueue(new Entry(FLAGS, session, null, null, flags));
+    }
+
+    // The game is over for good (e.g. its session expired); it will not be recovered.
+    public void recordEnd(String session) {
+        enqueue(new Entry(END, session, null, null, 0));
+    }
+
+    // Asks the writer to take a snapshot after the records queued so far.
+    public void snapshot() {
+        enqueue(new Entry(SNAPSHOT, null, null, null, 0));
+    }
+
+    // Changes made after close (e.g. while the application shuts down) or after a failed write
+    // are not recorded.
+    private void enqueue(Entry entry) {
+        synchronized (queue) {
+            if (closed) return;
+            enqueued.incrementAndGet();
+            queue.add(entry);
+        }
+    }
+
+    // Blocks until everything queued before the call has been written (and forced, if enabled).
+    // Throws UncheckedIOException if the journal stopped on a failed write before getting there.
+    public void flush() {
+        long target = enqueued.get();
+        synchronized (writtenLock) {
+            while (written < target && failure == null && writer.isAlive()) {
+                try {
+                    writtenLock.wait(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            if (written < target && failure != null) {
+                throw new UncheckedIOException("Journal " + base + " stopped after a failed write", failure);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (queue) {
+            if (closed) return;
+            closed = true;
+            enqueued.incrementAndGet();
+            queue.add(new Entry(CLOSE, null, null, null, 0));
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Path journalFile(long generation) {
+        return Paths.get(base + "." + generation);
+    }
+
+    private Path snapshotFile() {
+        return Paths.get(base + ".snapshot");
+    }
+
+    // Loads the snapshot, replays the current generation's records and truncates a torn tail.
+    private void recover() throws IOException {
+        generation = 0;
+        Path snapshot = snapshotFile();
+        if (Files.exists(snapshot)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)))) {
+                readSnapshot(in);
+            }
+        }
+        // A crash between moving a snapshot into place and deleting the older journal leaves it behind.
+        if (generation > 0) Files.deleteIfExists(journalFile(generation - 1));
+        channel = FileChannel.open(journalFile(generation), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        ByteBuffer contents = ByteBuffer.allocate((int) size);
+        while (contents.hasRemaining() && channel.read(contents) >= 0) {
+        }
+        contents.flip();
+        long good = replay(contents);
+        if (good < size) {
+            Log.info("GameJournal: Dropping " + (size - good) + " bytes of incomplete records at the end of " + journalFile(generation));
+            channel.truncate(good);
+        }
+        channel.position(good);
+    }
+
+    private void readSnapshot(DataInputStream in) throws IOException {
+        if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+            throw new IOException("Not a journal snapshot: " + snapshotFile());
+        }
+        generation = in.readLong();
+        int games = in.readInt();
+        for (int i = 0; i < games; i++) {
+            MutableState state = new MutableState();
+            String session = in.readUTF();
+            state.flags = in.readByte();
+            if (in.readBoolean()) {
+                state.startWord = in.readUTF();
+                state.targetWord = in.readUTF();
+            }
+            int moves = in.readInt();
+            for (int m = 0; m < moves; m++) {
+                state.history.add(in.readUTF());
+            }
+            states.put(session, state);
+        }
+    }
+
+    // Applies records until the end or the first incomplete or corrupt one; returns its offset.
+    private long replay(ByteBuffer contents) {
+        while (contents.remaining() >= 8) {
+            int start = contents.position();
+            int length = contents.getInt();
+            int checksum = contents.getInt();
+            if (length <= 0 || length > contents.remaining()) return start;
+            crc.reset();
+            crc.update(contents.array(), contents.position(), length);
+            if ((int) crc.getValue() != checksum) return start;
+            ByteBuffer payload = contents.slice();
+            payload.limit(length);
+            contents.position(contents.position() + length);
+            byte type = payload.get();
+            String session = getString(payload);
+            switch (type) {
+                case START:
+                    apply(new Entry(type, session, getString(payload), getString(payload), 0));
+                    break;
+                case MOVE:
+                    apply(new Entry(type, session, getString(payload), null, 0));
+                    break;
+                case FLAGS:
+                    apply(new Entry(type, session, null, null, payload.get()));
+                    break;
+                case END:
+                case UNDO:
+                    apply(new Entry(type, session, null, null, 0));
+                    break;
+                default:
+                    return start;
+            }
+        }
+        return contents.position();
+    }
+
+    private void apply(Entry entry) {
+        if (entry.type == END) {
+            states.remove(entry.session);
+            return;
+        }
+        MutableState state = states.computeIfAbsent(entry.session, s -> new MutableState());
+        switch (entry.type) {
+            case START:
+                state.startWord = entry.first;
+                state.targetWord = entry.second;
+                state.history.clear();
+                break;
+            case MOVE:
+                state.history.add(entry.first);
+                break;
+            case UNDO:
+                if (!state.history.isEmpty()) state.history.remove(state.history.size() - 1);
+                break;
+            case FLAGS:
+                state.flags = entry.flags;
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void writeLoop() {
+        List<Entry> batch = new ArrayList<>();
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                continue;
+            }
+            queue.drainTo(batch);
+            boolean snapshotRequested = false;
+            int records = 0;
+            buffer.clear();
+            for (Entry entry : batch) {
+                if (entry.type == SNAPSHOT) {
+                    snapshotRequested = true;
+                } else if (entry.type == CLOSE) {
+                    running = false;
+                } else {
+                    encode(entry);
+                    apply(entry);
+                    records++;
+                }
+            }
+            try {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                if (forceEachBatch && records > 0) channel.force(false);
+            } catch (IOException e) {
+                // The batch may be partly on disk; recovery drops a torn last record. Stop here
+                // rather than write later records after a gap.
+                Log.error("GameJournal: Write to " + journalFile(generation) + " failed; no further changes will be recorded: " + e.getMessage(), e);
+                synchronized (queue) {
+                    closed = true;
+                }
+                synchronized (writtenLock) {
+                    failure = e;
+                    writtenLock.notifyAll();
+                }
+                break;
+            }
+            sinceSnapshot += records;
+            if (snapshotRequested || sinceSnapshot >= snapshotEvery) {
+                // The batch is already durable in the current generation, so a failed snapshot
+                // only means the next batch tries again.
+                try {
+                    writeSnapshot();
+                } catch (IOException e) {
+                    Log.error("GameJournal: Snapshot to " + snapshotFile() + " failed: " + e.getMessage(), e);
+                }
+            }
+            synchronized (writtenLock) {
+                written += batch.size();
+                writtenLock.notifyAll();
+            }
+            batch.clear();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            Log.error("GameJournal: Closing " + journalFile(generation) + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    private void encode(Entry entry) {
+        ensureCapacity(8 + 1 + stringBytes(entry.session) + stringBytes(entry.first) + stringBytes(entry.second) + 1);
+        int start = buffer.position();
+        buffer.position(start + 8);
+        buffer.put(entry.type);
+        putString(entry.session);
+        switch (entry.type) {
+            case START:
+                putString(entry.first);
+                putString(entry.second);
+                break;
+            case MOVE:
+                putString(entry.first);
+                break;
+            case FLAGS:
+                buffer.put((byte) entry.flags);
+                break;
+            default:
+                break;
+        }
+        int length = buffer.position() - start - 8;
+        crc.reset();
+        crc.update(buffer.array(), start + 8, length);
+        buffer.putInt(start, length);
+        buffer.putInt(start + 4, (int) crc.getValue());
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (buffer.remaining() >= bytes) return;
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+        buffer.flip();
+        larger.put(buffer);
+        buffer = larger;
+    }
+
+    private static int stringBytes(String value) {
+        return value == null ? 2 : 2 + value.length() * 3;
+    }
+
+    private void putString(String value) {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.getShort() & 0xFFFF];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Saves all open games and switches to a fresh journal generation. The new generation's file
+    // exists before the snapshot naming it is moved into place, and the old one is deleted only
+    // afterwards, so a crash at any point leaves a snapshot whose journal is complete.
+    private void writeSnapshot() throws IOException {
+        long next = generation + 1;
+        FileChannel nextChannel = FileChannel.open(journalFile(next), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        Path temp = Paths.get(base + ".snapshot.tmp");
+        try (FileOutputStream file = new FileOutputStream(temp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(next);
+            out.writeInt(states.size());
+            for (Map.Entry<String, MutableState> game : states.entrySet()) {
+                MutableState state = game.getValue();
+                out.writeUTF(game.getKey());
+                out.writeByte(state.flags);
+                out.writeBoolean(state.startWord != null);
+                if (state.startWord != null) {
+                    out.writeUTF(state.startWord);
+                    out.writeUTF(state.targetWord);
+                }
+                out.writeInt(state.history.size());
+                for (String word : state.history) {
+                    out.writeUTF(word);
+                }
+            }
+            out.flush();
+            file.getFD().sync();
+        } catch (IOException e) {
+            nextChannel.close();
+            throw e;
+        }
+        Files.move(temp, snapshotFile(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        FileChannel previous = channel;
+        Path previousFile = journalFile(generation);
+        channel = nextChannel;
+        generation = next;
+        sinceSnapshot = 0;
+        previous.close();
+        Files.deleteIfExists(previousFile);
+        if (Log.DEBUG) Log.debug("GameJournal: Snapshot of " + states.size() + " games; now writing " + journalFile(generation));
+    }
+}
@@ -0,0 +1,132 @@
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// One headless game hosted by GameSessionManager. The session owns its Model and runs every
+// operation on it through a private mailbox: tasks are queued and drained in order by at most
+// one pool thread at a time, so a Model is never touched concurrently and no thread ever
+// blocks waiting for a session lock.
+public class GameSession {
+
+    public static class MoveResult {
+        public final boolean accepted;
+        public final boolean won;
+        public final Model.LetterFeedback[] feedback;
+        public final List<String> history;
+        public final Model.Score score;
+
+        public MoveResult(boolean accepted, boolean won, Model.LetterFeedback[] feedback, List<String> history, Model.Score score) {
+            this.accepted = accepted;
+            this.won = won;
+            this.feedback = feedback;
+            this.history = history;
+            this.score = score;
+        }
+    }
+
+    // A mailbox entry. Exactly one of run() or reject() is called for every queued task.
+    interface Task extends Runnable {
+        // The task will never run, e.g. because the worker pool has shut down.
+        void reject(RejectedExecutionException cause);
+    }
+
+    private final String id;
+    private final Model model;
+    private final Executor executor;
+    private final Queue<Task> mailbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile long lastAccessMillis;
+
+    GameSession(String id, Model model, Executor executor) {
+        this.id = id;
+        this.model = model;
+        this.executor = executor;
+        touch();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public long getLastAccessMillis() {
+        return lastAccessMillis;
+    }
+
+    void touch() {
+        lastAccessMillis = System.currentTimeMillis();
+    }
+
+    // Must only be called from a task running in this session's mailbox.
+    Model getModel() {
+        return model;
+    }
+
+    // Queues the task behind any earlier ones for this session.
+    // Throws RejectedExecutionException (and drops the task) if the worker pool is saturated.
+    // Tasks other threads queued meanwhile would then have no drain to run them, so they are
+    // rejected too.
+    void enqueue(Task task) {
+        touch();
+        mailbox.add(task);
+        try {
+            scheduleDrain();
+        } catch (RejectedExecutionException e) {
+            mailbox.remove(task);
+            rejectPending(e);
+            throw e;
+        }
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                throw e;
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            Task task;
+            while ((task = mailbox.poll()) != null) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    Log.error("GameSession " + id + ": Task failed: " + e, e);
+                }
+            }
+        } finally {
+            draining.set(false);
+        }
+        // A task may have arrived after the last poll but before the flag was cleared.
+        if (!mailbox.isEmpty()) {
+            try {
+                scheduleDrain();
+            } catch (RejectedExecutionException e) {
+                rejectPending(e);
+            }
+        }
+    }
+
+    private void rejectPending(RejectedExecutionException cause) {
+        Task task;
+        int rejected = 0;
+        while ((task = mailbox.poll()) != null) {
+            task.reject(cause);
+            rejected++;
+        }
+        if (rejected > 0) Log.info("GameSession " + id + ": Rejected " + rejected + " queued tasks: " + cause.getMessage());
+    }
+
+    MoveResult move(String word) {
+        boolean accepted = model.makeMove(word);
+        GameSnapshot game = model.getSnapshot();
+        return new MoveResult(accepted, game.hasWon(), game.lastGuessFeedback(), game.history, game.score());
+    }
+}
@@ -0,0 +1,195 @@
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Hosts many headless games in one JVM without Swing or a Scanner.
+// Sessions share one Lexicon, are addressed by id and expire after a period of inactivity.
+// Every operation runs on a bounded worker pool through the session's own mailbox (see
+// GameSession), so moves for one game are applied in order while different games proceed in
+// parallel. When the pool's queue is full, new work fails fast instead of queueing forever.
+// With a GameJournal, every game's moves are journaled and recoverSessions() brings back the
+// games that were still open when the previous process stopped, under their old ids.
+public class GameSessionManager implements AutoCloseable {
+
+    private static final int DEFAULT_QUEUE_CAPACITY = 65536;
+
+    private final Lexicon lexicon;
+    private final ConcurrentHashMap<String, GameSession> sessions = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService reaper;
+    private final long idleTimeoutMillis;
+    private final GameJournal journal;
+
+    public GameSessionManager(Lexicon lexicon, long idleTimeout, TimeUnit unit) {
+        this(lexicon, Runtime.getRuntime().availableProcessors(), idleTimeout, unit);
+    }
+
+    public GameSessionManager(Lexicon lexicon, int workerThreads, long idleTimeout, TimeUnit unit) {
+        this(lexicon, workerThreads, idleTimeout, unit, null);
+    }
+
+    // journal may be null; the manager does not close it.
+    public GameSessionManager(Lexicon lexicon, int workerThreads, long idleTimeout, TimeUnit unit, GameJournal journal) {
+        this.lexicon = lexicon;
+        this.journal = journal;
+        this.idleTimeoutMillis = unit.toMillis(idleTimeout);
+        this.workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(DEFAULT_QUEUE_CAPACITY), daemonThreads("weaver-session-worker"));
+        this.reaper = Executors.newSingleThreadScheduledExecutor(daemonThreads("weaver-session-reaper"));
+        long sweepMillis = Math.max(1L, idleTimeoutMillis / 2);
+        reaper.scheduleWithFixedDelay(this::expireIdleSessions, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // Creates a game with the default or random words, depending on useRandomWords.
+    public String createSession(boolean useRandomWords) {
+        Model model = new Model(lexicon);
+        if (useRandomWords) {
+            model.setUseRandomWords(true);
+        }
+        return register(model);
+    }
+
+    public String createSession(Model.Puzzle puzzle) {
+        Model model = new Model(lexicon);
+        model.initializeGame(puzzle.startWord, puzzle.targetWord);
+        return register(model);
+    }
+
+    private String register(Model model) {
+        String id = UUID.randomUUID().toString();
+        if (journal != null) journal.attach(id, model);
+        sessions.put(id, new GameSession(id, model, workers));
+        if (WeaverMetrics.ENABLED) WeaverMetrics.gameStarted();
+        Log.debug(() -> "GameSessionManager: Created session " + id + ". Active sessions: " + sessions.size());
+        return id;
+    }
+
+    // Recreates the journal's open games that are not already hosted and returns how many.
+    // Games that no longer fit the dictionary are restored as far as possible and journaled
+    // again as restored, so later moves are not appended to a history the model does not hold.
+    public int recoverSessions() {
+        if (journal == null) return 0;
+        int recovered = 0;
+        for (Map.Entry<String, GameJournal.GameState> game : journal.getRecoveredGames().entrySet()) {
+            String id = game.getKey();
+            if (sessions.containsKey(id)) continue;
+            Model model = new Model(lexicon);
+            if (game.getValue().restoreInto(model)) {
+                journal.listen(id, model);
+            } else {
+                journal.attach(id, model);
+            }
+            if (sessions.putIfAbsent(id, new GameSession(id, model, workers)) == null) {
+                recovered++;
+                if (WeaverMetrics.ENABLED) WeaverMetrics.gameStarted();
+            }
+        }
+        if (Log.DEBUG) Log.debug("GameSessionManager: Recovered " + recovered + " sessions. Active sessions: " + sessions.size());
+        return recovered;
+    }
+
+    public GameSession getSession(String id) {
+        return sessions.get(id);
+    }
+
+    public boolean removeSession(String id) {
+        if (sessions.remove(id) == null) return false;
+        if (journal != null) journal.recordEnd(id);
+        if (WeaverMetrics.ENABLED) WeaverMetrics.gameEnded();
+        return true;
+    }
+
+    public int getActiveSessionCount() {
+        return sessions.size();
+    }
+
+    public CompletableFuture<GameSession.MoveResult> submitMove(String sessionId, String word) {
+        return submit(sessionId, session -> session.move(word));
+    }
+
+    public CompletableFuture<List<String>> getHistory(String sessionId) {
+        return submit(sessionId, session -> session.getModel().getGameHistory());
+    }
+
+    // Runs an arbitrary read or update against the session's Model in the session's order.
+    public <T> CompletableFuture<T> submit(String sessionId, Function<GameSession, T> operation) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        GameSession session = sessions.get(sessionId);
+        if (session == null) {
+            result.completeExceptionally(new IllegalArgumentException("Unknown or expired session: " + sessionId));
+            return result;
+        }
+        try {
+            session.enqueue(new GameSession.Task() {
+                @Override
+                public void run() {
+                    try {
+                        result.complete(operation.apply(session));
+                    } catch (RuntimeException e) {
+                        result.completeExceptionally(e);
+                    }
+                }
+
+                @Override
+                public void reject(RejectedExecutionException cause) {
+                    result.completeExceptionally(cause);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    // Removes sessions that have been idle for longer than the timeout and returns how many.
+    public int expireIdleSessions() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        int expired = 0;
+        for (GameSession session : sessions.values()) {
+            // Only count sessions this sweep actually removed, not ones removed concurrently.
+            if (session.getLastAccessMillis() < cutoff && sessions.remove(session.getId(), session)) {
+                expired++;
+                if (journal != null) journal.recordEnd(session.getId());
+                if (WeaverMetrics.ENABLED) WeaverMetrics.gameEnded();
+            }
+        }
+        if (expired > 0 && Log.DEBUG) Log.debug("GameSessionManager: Expired " + expired + " idle sessions. Active sessions: " + sessions.size());
+        return expired;
+    }
+
+    @Override
+    public void close() {
+        reaper.shutdownNow();
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(5, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        // Closing is not the end of the games: they stay in the journal to be recovered.
+        for (String id : sessions.keySet()) {
+            if (sessions.remove(id) != null && WeaverMetrics.ENABLED) WeaverMetrics.gameEnded();
+        }
+    }
+}
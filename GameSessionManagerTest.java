@@ -0,0 +1,176 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class GameSessionManagerTest {
+    private GameSessionManager manager;
+
+    @Before
+    public void setUp() {
+        manager = new GameSessionManager(Lexicon.load("dictionary.txt"), 4, 10, TimeUnit.MINUTES);
+    }
+
+    @After
+    public void tearDown() {
+        manager.close();
+    }
+
+    @Test
+    public void testMovesAreAppliedInOrderPerSession() throws Exception {
+        String id = manager.createSession(false);
+        CompletableFuture<GameSession.MoveResult> first = manager.submitMove(id, "male");
+        CompletableFuture<GameSession.MoveResult> second = manager.submitMove(id, "mame");
+        CompletableFuture<GameSession.MoveResult> third = manager.submitMove(id, "same");
+
+        assertTrue(first.get(5, TimeUnit.SECONDS).accepted);
+        assertTrue(second.get(5, TimeUnit.SECONDS).accepted);
+        GameSession.MoveResult last = third.get(5, TimeUnit.SECONDS);
+        assertTrue(last.accepted);
+        assertTrue("sale -> male -> mame -> same should win", last.won);
+        assertEquals(3, last.history.size());
+    }
+
+    @Test
+    public void testManyConcurrentSessionsStayIsolated() throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            ids.add(manager.createSession(false));
+        }
+        assertEquals(2000, manager.getActiveSessionCount());
+
+        List<CompletableFuture<GameSession.MoveResult>> results = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            // Even sessions get a valid move, odd ones an invalid one.
+            results.add(manager.submitMove(ids.get(i), i % 2 == 0 ? "same" : "xxxx"));
+        }
+        for (int i = 0; i < results.size(); i++) {
+            GameSession.MoveResult result = results.get(i).get(10, TimeUnit.SECONDS);
+            assertEquals("Session " + i, i % 2 == 0, result.accepted);
+            assertEquals(i % 2 == 0 ? 1 : 0, result.history.size());
+        }
+    }
+
+    @Test
+    public void testPartlyRestoredGamesAreJournaledAsRestored() throws Exception {
+        Path dir = Files.createTempDirectory("weaver-journal");
+        Path base = dir.resolve("games");
+        try {
+            try (GameJournal journal = GameJournal.open(base)) {
+                journal.recordStart("a", "sale", "same");
+                journal.recordMove("a", "male");
+                // No longer a word, e.g. removed from the dictionary since.
+                journal.recordMove("a", "zzzz");
+                journal.recordMove("a", "mame");
+            }
+            try (GameJournal journal = GameJournal.open(base);
+                 GameSessionManager recovering = new GameSessionManager(Lexicon.load("dictionary.txt"), 2, 10, TimeUnit.MINUTES, journal)) {
+                assertEquals(1, recovering.recoverSessions());
+                assertEquals(Arrays.asList("male"), recovering.getHistory("a").get(5, TimeUnit.SECONDS));
+                assertTrue(recovering.submitMove("a", "sale").get(5, TimeUnit.SECONDS).accepted);
+            }
+            try (GameJournal journal = GameJournal.open(base)) {
+                GameJournal.GameState state = journal.getRecoveredGames().get("a");
+                assertEquals("sale", state.startWord);
+                assertEquals(Arrays.asList("male", "sale"), state.history);
+                assertTrue("The journal now holds the game the player saw", state.restoreInto(new Model(Lexicon.load("dictionary.txt"))));
+            }
+        } finally {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+                for (Path file : files) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    public void testUnknownAndExpiredSessionsAreRejected() throws Exception {
+        try {
+            manager.submitMove("no-such-session", "same").get(5, TimeUnit.SECONDS);
+            fail("Moves on an unknown session should fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+
+        try (GameSessionManager shortLived = new GameSessionManager(Lexicon.load("dictionary.txt"), 1, 1, TimeUnit.MILLISECONDS)) {
+            String id = shortLived.createSession(true);
+            Thread.sleep(20);
+            shortLived.expireIdleSessions();
+            assertNull("Idle sessions should expire", shortLived.getSession(id));
+            assertEquals(0, shortLived.getActiveSessionCount());
+        }
+    }
+
+    @Test
+    public void testQueuedMovesFailInsteadOfHangingWhenThePoolShutsDown() throws Exception {
+        GameSessionManager closing = new GameSessionManager(Lexicon.load("dictionary.txt"), 2, 10, TimeUnit.MINUTES);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            ids.add(closing.createSession(false));
+        }
+        List<CompletableFuture<GameSession.MoveResult>> results = new ArrayList<>();
+        CountDownLatch started = new CountDownLatch(4);
+        AtomicBoolean closed = new AtomicBoolean();
+        List<Thread> submitters = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread submitter = new Thread(() -> {
+                started.countDown();
+                // Up to 5000 moves while the pool shuts down, then 100 once it has.
+                int i = 0;
+                while (!closed.get()) {
+                    if (i < 5000) {
+                        submit(closing, ids, i++, results);
+                    } else {
+                        Thread.yield();
+                    }
+                }
+                for (int end = i + 100; i < end; i++) {
+                    submit(closing, ids, i, results);
+                }
+            });
+            submitters.add(submitter);
+            submitter.start();
+        }
+        started.await();
+        closing.close();
+        closed.set(true);
+        for (Thread submitter : submitters) {
+            submitter.join();
+        }
+
+        // Every move either ran or failed; none is left waiting in a mailbox nobody drains.
+        int failed = 0;
+        for (CompletableFuture<GameSession.MoveResult> result : results) {
+            try {
+                result.get(5, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                assertTrue("Moves after shutdown should be rejected: " + e.getCause(),
+                        e.getCause() instanceof RejectedExecutionException || e.getCause() instanceof IllegalArgumentException);
+                failed++;
+            }
+        }
+        assertTrue(results.size() >= 400);
+        assertTrue("Moves that arrived after the pool shut down should fail", failed >= 400);
+    }
+
+    private static void submit(GameSessionManager manager, List<String> ids, int i, List<CompletableFuture<GameSession.MoveResult>> results) {
+        CompletableFuture<GameSession.MoveResult> result = manager.submitMove(ids.get(i % ids.size()), i % 2 == 0 ? "same" : "sale");
+        synchronized (results) {
+            results.add(result);
+        }
+    }
+}
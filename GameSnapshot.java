@@ -0,0 +1,124 @@
+// Everything about one game at one moment. A Model never changes a snapshot: every change builds
+// a new one and publishes it through a single volatile field, so readers on any thread (the View,
+// the CLI, solvers, metrics, network handlers) see a consistent game without taking a lock.
+public final class GameSnapshot {
+
+    // The dictionary version the game was started with, kept until the next game.
+    public final Lexicon.Version version;
+    public final String startWord;
+    public final String targetWord;
+    public final WordHistory history;
+    // The history before the undos since the last move, or null when there is nothing to redo.
+    final WordHistory redoHistory;
+    // Feedback for the last guess; never modified once the snapshot is published.
+    final Model.LetterFeedback[] lastGuessFeedback;
+    // Distance from every word to the target, or null when the target is not a dictionary word.
+    final DistanceLayers targetDistances;
+    public final int optimalMoves;
+    public final int currentDistance;
+    public final int detours;
+    public final boolean showErrorMessage;
+    public final boolean showPath;
+    public final boolean useRandomWords;
+    // Derived from version, kept for the hot paths.
+    final WordGraph graph;
+    final PackedDictionary dictionary;
+
+    private GameSnapshot(Lexicon.Version version, String startWord, String targetWord, WordHistory history,
+                         WordHistory redoHistory, Model.LetterFeedback[] lastGuessFeedback, DistanceLayers targetDistances,
+                         int optimalMoves, int currentDistance, int detours,
+                         boolean showErrorMessage, boolean showPath, boolean useRandomWords) {
+        this.version = version;
+        this.startWord = startWord;
+        this.targetWord = targetWord;
+        this.history = history;
+        this.redoHistory = redoHistory;
+        this.lastGuessFeedback = lastGuessFeedback;
+        this.targetDistances = targetDistances;
+        this.optimalMoves = optimalMoves;
+        this.currentDistance = currentDistance;
+        this.detours = detours;
+        this.showErrorMessage = showErrorMessage;
+        this.showPath = showPath;
+        this.useRandomWords = useRandomWords;
+        this.graph = version.graph;
+        this.dictionary = graph.getDictionary();
+    }
+
+    // Before the first game: default settings and no words yet.
+    static GameSnapshot initial(Lexicon.Version version) {
+        return new GameSnapshot(version, null, null, WordHistory.empty(), null, null, null,
+                DistanceLayers.UNREACHABLE, DistanceLayers.UNREACHABLE, 0, true, false, false);
+    }
+
+    // A new game on the given version; the settings carry over.
+    GameSnapshot withGame(Lexicon.Version version, String startWord, String targetWord) {
+        int targetId = version.graph.idOf(targetWord);
+        DistanceLayers distances = targetId < 0 ? null : version.puzzleGenerator.layersFrom(targetId);
+        int optimal = distances == null ? DistanceLayers.UNREACHABLE : distances.distanceTo(version.graph.idOf(startWord));
+        return new GameSnapshot(version, startWord, targetWord, WordHistory.empty(), null, null, distances,
+                optimal, optimal, 0, showErrorMessage, showPath, useRandomWords);
+    }
+
+    // A game that could not be set up; its words are placeholders and nothing is reachable.
+    GameSnapshot withBrokenGame(Lexicon.Version version, String startWord, String targetWord) {
+        return new GameSnapshot(version, startWord, targetWord, WordHistory.empty(), null, null, null,
+                DistanceLayers.UNREACHABLE, DistanceLayers.UNREACHABLE, 0, showErrorMessage, showPath, useRandomWords);
+    }
+
+    GameSnapshot withMove(String word, Model.LetterFeedback[] feedback) {
+        int distance = distanceTo(word);
+        int newDetours = distance > currentDistance ? detours + 1 : detours;
+        return new GameSnapshot(version, startWord, targetWord, history.append(word), null, feedback, targetDistances,
+                optimalMoves, distance, newDetours, showErrorMessage, showPath, useRandomWords);
+    }
+
+    GameSnapshot withRejectedGuess(Model.LetterFeedback[] feedback) {
+        return new GameSnapshot(version, startWord, targetWord, history, redoHistory, feedback, targetDistances,
+                optimalMoves, currentDistance, detours, showErrorMessage, showPath, useRandomWords);
+    }
+
+    // Moves back (or forward, when redoing) to a different version of the history. Detours
+    // already made still count towards the score.
+    GameSnapshot withHistory(WordHistory newHistory, WordHistory newRedoHistory) {
+        String current = newHistory.isEmpty() ? startWord : newHistory.last();
+        return new GameSnapshot(version, startWord, targetWord, newHistory, newRedoHistory, null, targetDistances,
+                optimalMoves, distanceTo(current), detours, showErrorMessage, showPath, useRandomWords);
+    }
+
+    GameSnapshot withSettings(boolean showErrorMessage, boolean showPath, boolean useRandomWords) {
+        return new GameSnapshot(version, startWord, targetWord, history, redoHistory, lastGuessFeedback, targetDistances,
+                optimalMoves, currentDistance, detours, showErrorMessage, showPath, useRandomWords);
+    }
+
+    // Moves on a shortest ladder from the word to the target, or -1.
+    int distanceTo(String word) {
+        return targetDistances == null ? DistanceLayers.UNREACHABLE : targetDistances.distanceTo(graph.idOf(word));
+    }
+
+    // The word the next move starts from: the last accepted move, or the start word.
+    public String currentWord() {
+        return history.isEmpty() ? startWord : history.last();
+    }
+
+    public boolean hasWon() {
+        return !history.isEmpty() && history.last().equals(targetWord);
+    }
+
+    public boolean canUndo() {
+        return !history.isEmpty();
+    }
+
+    public boolean canRedo() {
+        return redoHistory != null && redoHistory.size() > history.size();
+    }
+
+    public Model.Score score() {
+        return new Model.Score(optimalMoves, history.size(), detours, currentDistance, hasWon());
+    }
+
+    // A copy, so callers cannot change the snapshot; null when there has been no guess yet.
+    public Model.LetterFeedback[] lastGuessFeedback() {
+        return lastGuessFeedback == null ? null : lastGuessFeedback.clone();
+    }
+}
@@ -0,0 +1,306 @@
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Whole-dictionary statistics for curating the word list: component sizes, degree distribution,
+// per-word eccentricity, the diameter and the hardest (longest optimal) puzzles.
+// The all-sources BFS sweep is split over a ForkJoinPool by ranges of source words. Each worker
+// thread reuses one set of primitive buffers for all of its searches, so the sweep does not
+// allocate per source and scales with the number of cores.
+//
+// Usage: java GraphAnalytics [dictionary.txt] [report.txt]
+public class GraphAnalytics {
+
+    // Sources per leaf task; small enough to balance well, large enough to amortise task overhead.
+    private static final int SOURCES_PER_TASK = 32;
+    private static final int MAX_HARDEST_PAIRS = 50;
+
+    private final WordGraph graph;
+    private final int[] eccentricity;
+    private long[] distanceCounts = new long[0];
+    private int diameter;
+    private int[] hardestPairs = new int[0];
+    private long elapsedNanos;
+
+    public GraphAnalytics(WordGraph graph) {
+        this.graph = graph;
+        this.eccentricity = new int[graph.size()];
+    }
+
+    // Per-thread BFS state. A word counts as visited when its stamp equals the current search,
+    // so the arrays never need clearing between sources.
+    private static final class Buffers {
+        final int[] queue;
+        final int[] distance;
+        final int[] stamp;
+        int search;
+
+        Buffers(int size) {
+            queue = new int[size];
+            distance = new int[size];
+            stamp = new int[size];
+        }
+    }
+
+    // Results for a range of sources, merged pairwise as the fork-join tree completes.
+    private static final class Partial {
+        long[] distanceCounts = new long[1];
+        int maxDistance;
+        // Flattened (a, b) pairs with a < b at distance maxDistance, at most MAX_HARDEST_PAIRS.
+        int[] pairs = new int[0];
+        int pairCount;
+
+        void addPair(int a, int b) {
+            if (pairCount == MAX_HARDEST_PAIRS) return;
+            if (pairs.length == pairCount * 2) {
+                pairs = Arrays.copyOf(pairs, Math.max(8, pairs.length * 2));
+            }
+            pairs[pairCount * 2] = a;
+            pairs[pairCount * 2 + 1] = b;
+            pairCount++;
+        }
+
+        void countDistance(int d) {
+            if (d >= distanceCounts.length) {
+                distanceCounts = Arrays.copyOf(distanceCounts, d + 1);
+            }
+            distanceCounts[d]++;
+        }
+
+        Partial merge(Partial other) {
+            if (other.distanceCounts.length > distanceCounts.length) {
+                long[] swap = distanceCounts;
+                distanceCounts = other.distanceCounts;
+                other.distanceCounts = swap;
+            }
+            for (int d = 0; d < other.distanceCounts.length; d++) {
+                distanceCounts[d] += other.distanceCounts[d];
+            }
+            if (other.maxDistance > maxDistance) {
+                maxDistance = other.maxDistance;
+                pairs = other.pairs;
+                pairCount = other.pairCount;
+            } else if (other.maxDistance == maxDistance) {
+                for (int i = 0; i < other.pairCount; i++) {
+                    addPair(other.pairs[i * 2], other.pairs[i * 2 + 1]);
+                }
+            }
+            return this;
+        }
+    }
+
+    // Never serialized; RecursiveTask is Serializable only through ForkJoinTask.
+    private final class SweepTask extends RecursiveTask<Partial> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final ThreadLocal<Buffers> buffers;
+
+        SweepTask(int from, int to, ThreadLocal<Buffers> buffers) {
+            this.from = from;
+            this.to = to;
+            this.buffers = buffers;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from <= SOURCES_PER_TASK) {
+                Partial partial = new Partial();
+                Buffers local = buffers.get();
+                for (int source = from; source < to; source++) {
+                    if (graph.isLive(source)) bfs(source, local, partial);
+                }
+                return partial;
+            }
+            int mid = (from + to) >>> 1;
+            SweepTask left = new SweepTask(from, mid, buffers);
+            left.fork();
+            Partial right = new SweepTask(mid, to, buffers).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    // Runs the all-sources sweep on the common pool.
+    public void run() {
+        run(ForkJoinPool.commonPool());
+    }
+
+    public void run(ForkJoinPool pool) {
+        long started = System.nanoTime();
+        int size = graph.size();
+        ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(() -> new Buffers(size));
+        Partial result = size == 0 ? new Partial() : pool.invoke(new SweepTask(0, size, buffers));
+        distanceCounts = result.distanceCounts;
+        diameter = result.maxDistance;
+        hardestPairs = Arrays.copyOf(result.pairs, result.pairCount * 2);
+        elapsedNanos = System.nanoTime() - started;
+        if (Log.DEBUG) Log.debug("GraphAnalytics: Swept " + size + " sources on " + pool.getParallelism() + " threads in " + elapsedNanos / 1_000_000 + " ms");
+    }
+
+    private void bfs(int source, Buffers buffers, Partial partial) {
+        int[] queue = buffers.queue;
+        int[] distance = buffers.distance;
+        int[] stamp = buffers.stamp;
+        int search = ++buffers.search;
+
+        stamp[source] = search;
+        distance[source] = 0;
+        queue[0] = source;
+        int head = 0;
+        int tail = 1;
+        while (head < tail) {
+            int current = queue[head++];
+            int next = distance[current] + 1;
+            for (int neighbor : graph.neighbors(current)) {
+                if (stamp[neighbor] != search) {
+                    stamp[neighbor] = search;
+                    distance[neighbor] = next;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        // The queue is in distance order, so the last word reached is one of the farthest.
+        int farthest = distance[queue[tail - 1]];
+        eccentricity[source] = farthest;
+        for (int i = 1; i < tail; i++) {
+            int target = queue[i];
+            if (target > source) {
+                partial.countDistance(distance[target]);
+            }
+        }
+        if (farthest > partial.maxDistance) {
+            partial.maxDistance = farthest;
+            partial.pairCount = 0;
+        }
+        if (farthest == partial.maxDistance && farthest > 0) {
+            for (int i = tail - 1; i > 0 && distance[queue[i]] == farthest; i--) {
+                if (queue[i] > source) {
+                    partial.addPair(source, queue[i]);
+                }
+            }
+        }
+    }
+
+    // Longest shortest ladder from the word id to any word it can reach.
+    public int eccentricity(int id) {
+        return eccentricity[id];
+    }
+
+    // Largest eccentricity over all words, i.e. the longest optimal ladder in the dictionary.
+    public int diameter() {
+        return diameter;
+    }
+
+    // Number of connected word pairs whose shortest ladder has exactly the given length.
+    public long pairsAtDistance(int distance) {
+        return distance > 0 && distance < distanceCounts.length ? distanceCounts[distance] : 0;
+    }
+
+    // Puzzles whose optimal ladder is as long as the diameter (up to MAX_HARDEST_PAIRS of them).
+    public List<Model.Puzzle> hardestPuzzles() {
+        List<Model.Puzzle> puzzles = new ArrayList<>(hardestPairs.length / 2);
+        for (int i = 0; i < hardestPairs.length; i += 2) {
+            puzzles.add(new Model.Puzzle(graph.wordAt(hardestPairs[i]), graph.wordAt(hardestPairs[i + 1]), diameter));
+        }
+        return puzzles;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    public void writeReport(PrintWriter out) {
+        int size = graph.size();
+        out.println("Word graph report");
+        out.println("=================");
+        out.println("Words: " + graph.wordCount());
+
+        long edges = 0;
+        int maxDegree = 0;
+        for (int id = 0; id < size; id++) {
+            if (!graph.isLive(id)) continue;
+            edges += graph.degree(id);
+            maxDegree = Math.max(maxDegree, graph.degree(id));
+        }
+        out.println("Edges: " + edges / 2);
+
+        out.println();
+        int components = 0;
+        for (int c = 0; c < graph.componentCount(); c++) {
+            if (graph.componentSize(c) > 0) components++;
+        }
+        out.println("Components: " + components);
+        int[] componentSizes = new int[components];
+        for (int c = 0, i = 0; c < graph.componentCount(); c++) {
+            if (graph.componentSize(c) > 0) componentSizes[i++] = graph.componentSize(c);
+        }
+        Arrays.sort(componentSizes);
+        int isolated = 0;
+        for (int componentSize : componentSizes) {
+            if (componentSize == 1) isolated++;
+        }
+        out.println("Isolated words: " + isolated);
+        out.print("Largest components:");
+        for (int i = componentSizes.length - 1; i >= Math.max(0, componentSizes.length - 10); i--) {
+            out.print(" " + componentSizes[i]);
+        }
+        out.println();
+
+        out.println();
+        out.println("Degree distribution (degree: words)");
+        int[] degreeCounts = new int[maxDegree + 1];
+        for (int id = 0; id < size; id++) {
+            if (graph.isLive(id)) degreeCounts[graph.degree(id)]++;
+        }
+        for (int d = 0; d <= maxDegree; d++) {
+            if (degreeCounts[d] > 0) out.println("  " + d + ": " + degreeCounts[d]);
+        }
+
+        out.println();
+        out.println("Eccentricity distribution (moves: words)");
+        int[] eccentricityCounts = new int[diameter + 1];
+        for (int id = 0; id < size; id++) {
+            if (graph.isLive(id)) eccentricityCounts[eccentricity[id]]++;
+        }
+        for (int d = 0; d <= diameter; d++) {
+            if (eccentricityCounts[d] > 0) out.println("  " + d + ": " + eccentricityCounts[d]);
+        }
+
+        out.println();
+        out.println("Optimal ladder lengths over all connected pairs (moves: pairs)");
+        for (int d = 1; d < distanceCounts.length; d++) {
+            out.println("  " + d + ": " + distanceCounts[d]);
+        }
+
+        out.println();
+        out.println("Diameter: " + diameter);
+        out.println("Hardest puzzles:");
+        for (Model.Puzzle puzzle : hardestPuzzles()) {
+            out.println("  " + puzzle);
+        }
+
+        out.println();
+        out.println("All-sources sweep: " + getElapsedMillis() + " ms");
+        out.flush();
+    }
+
+    public static void main(String[] args) throws IOException {
+        String dictionary = args.length > 0 ? args[0] : "dictionary.txt";
+        GraphAnalytics analytics = new GraphAnalytics(Lexicon.load(dictionary).getGraph());
+        analytics.run();
+        if (args.length > 1) {
+            try (PrintWriter out = new PrintWriter(new FileWriter(args[1]))) {
+                analytics.writeReport(out);
+            }
+            Log.info("GraphAnalytics: Report written to " + args[1]);
+        } else {
+            analytics.writeReport(new PrintWriter(System.out));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+import java.util.function.BooleanSupplier;
+
+// A shortest word-ladder search over a WordGraph. Every implementation returns a shortest ladder
+// (they differ only in how much of the graph they look at to find it) and reports what its last
+// search cost, so strategies can be compared on the same puzzles.
+// Solvers keep per-search state: use one solver per thread.
+public interface LadderSolver {
+
+    BooleanSupplier NEVER_CANCELLED = () -> false;
+
+    // Returns the word ids of a shortest ladder from startId to targetId (both ends included),
+    // or null when the two words are not connected or cancelled became true during the search.
+    int[] solve(int startId, int targetId, BooleanSupplier cancelled);
+
+    default int[] solve(int startId, int targetId) {
+        return solve(startId, targetId, NEVER_CANCELLED);
+    }
+
+    // Number of words whose neighbours were scanned during the last solve.
+    int getNodesExpanded();
+
+    // Wall-clock time of the last solve.
+    long getElapsedNanos();
+
+    // The available searches. The default comes from -Dweaver.solver=bfs|bidirectional|astar.
+    enum Strategy {
+        BFS("bfs") {
+            @Override
+            public LadderSolver create(WordGraph graph) {
+                return new BfsSolver(graph);
+            }
+        },
+        BIDIRECTIONAL_BFS("bidirectional") {
+            @Override
+            public LadderSolver create(WordGraph graph) {
+                return new BidirectionalBfsSolver(graph);
+            }
+        },
+        A_STAR("astar") {
+            @Override
+            public LadderSolver create(WordGraph graph) {
+                return new AStarSolver(graph);
+            }
+        };
+
+        public static final Strategy DEFAULT = fromName(System.getProperty("weaver.solver", "bidirectional"));
+
+        private final String name;
+
+        Strategy(String name) {
+            this.name = name;
+        }
+
+        public abstract LadderSolver create(WordGraph graph);
+
+        public String getName() {
+            return name;
+        }
+
+        // Unknown names fall back to bidirectional BFS.
+        public static Strategy fromName(String name) {
+            for (Strategy strategy : values()) {
+                if (strategy.name.equalsIgnoreCase(name.trim()) || strategy.name().equalsIgnoreCase(name.trim())) {
+                    return strategy;
+                }
+            }
+            Log.info("LadderSolver: Unknown solver '" + name + "', using bidirectional BFS.");
+            return BIDIRECTIONAL_BFS;
+        }
+    }
+}
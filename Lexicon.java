@@ -0,0 +1,231 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Dictionary plus everything derived from it (word graph, components, puzzle layers, solved
+// ladders). A Lexicon is loaded once per dictionary file and shared by reference between any
+// number of Model instances, which only keep their own per-game state. All methods are
+// safe to call from multiple threads.
+//
+// Words can be added or removed at runtime (e.g. from a moderation list). Each change derives
+// a new immutable Version incrementally (see WordGraph.withWord) and publishes it with a single
+// volatile write. A game captures the current Version when it starts and keeps using it, so
+// in-flight games and solves never see a half-applied change.
+public class Lexicon {
+
+    public static final class Version {
+        public final long number;
+        public final WordGraph graph;
+        public final PuzzleGenerator puzzleGenerator;
+        // Ladders are only valid for the graph they were solved on, so each version has its own.
+        public final SolutionCache solutionCache;
+        // What Model.isValidWord and the word-list queries check, chosen by BACKEND.
+        public final WordDictionary words;
+        // Words of other lengths than the game's for the dawg backend, else null.
+        private final DawgDictionary otherWords;
+
+        Version(long number, WordGraph graph, DawgDictionary otherWords) {
+            this.number = number;
+            this.graph = graph;
+            this.puzzleGenerator = new PuzzleGenerator(graph);
+            this.solutionCache = new SolutionCache();
+            this.otherWords = otherWords;
+            this.words = wordsOf(graph, otherWords);
+        }
+
+        // The version after previous, sharing what the edit left valid: cached layers and ladders
+        // whose start word's component is unchanged (see WordGraph.hasSameComponent).
+        Version(Version previous, WordGraph graph) {
+            this.number = previous.number + 1;
+            this.graph = graph;
+            this.puzzleGenerator = new PuzzleGenerator(graph, previous.puzzleGenerator);
+            this.solutionCache = new SolutionCache(previous.solutionCache.getMaxEntries());
+            previous.solutionCache.copyInto(solutionCache,
+                    packedStart -> graph.hasSameComponent(previous.graph, graph.idOf(packedStart)));
+            this.otherWords = previous.otherWords;
+            this.words = wordsOf(graph, otherWords);
+        }
+
+        private static WordDictionary wordsOf(WordGraph graph, DawgDictionary otherWords) {
+            return otherWords == null ? graph.getDictionary() : new CombinedDictionary(graph.getDictionary(), otherWords);
+        }
+    }
+
+    private static final ConcurrentHashMap<String, Lexicon> LOADED = new ConcurrentHashMap<>();
+
+    // Backend for word validation and whole-list queries (see WordDictionary), read once from
+    // "weaver.dictionary": "packed" (default) answers them from the game's 4-letter bitset; "dawg"
+    // also accepts the file's words of every other length, kept in a DawgDictionary (see
+    // CombinedDictionary). Ladders and moves always use the 4-letter word graph.
+    public static final String BACKEND = System.getProperty("weaver.dictionary", "packed").trim().toLowerCase();
+
+    private final String filename;
+    private final long sourceLastModified;
+    private volatile Version current;
+
+    private Lexicon(String filename, long sourceLastModified, WordGraph graph, DawgDictionary otherWords) {
+        this.filename = filename;
+        this.sourceLastModified = sourceLastModified;
+        this.current = new Version(0, graph, otherWords);
+    }
+
+    // Returns the shared Lexicon for the file, loading it on first use or when the file
+    // has changed since it was loaded.
+    public static Lexicon load(String filename) {
+        String key = keyFor(filename);
+        long lastModified = new File(filename).lastModified();
+        return LOADED.compute(key, (k, current) -> {
+            if (current != null && current.sourceLastModified == lastModified) return current;
+            if (current != null) current.getSolutionCache().invalidate();
+            return loadDictionary(filename);
+        });
+    }
+
+    // Forces the file to be read again; Models created afterwards get the new Lexicon.
+    // Ladders cached on the replaced Lexicon are dropped.
+    public static Lexicon reload(String filename) {
+        Lexicon lexicon = loadDictionary(filename);
+        Lexicon previous = LOADED.put(keyFor(filename), lexicon);
+        if (previous != null) {
+            previous.getSolutionCache().invalidate();
+        }
+        return lexicon;
+    }
+
+    // Every Lexicon currently loaded, keyed by the canonical path of its file.
+    static Map<String, Lexicon> loadedLexicons() {
+        return Collections.unmodifiableMap(LOADED);
+    }
+
+    private static String keyFor(String filename) {
+        try {
+            return new File(filename).getCanonicalPath();
+        } catch (IOException e) {
+            return new File(filename).getAbsolutePath();
+        }
+    }
+
+    // Maps the binary snapshot when it is up to date; otherwise parses the text file,
+    // builds the word graph and writes a new snapshot for the next start.
+    private static Lexicon loadDictionary(String filename) {
+        long lastModified = new File(filename).lastModified();
+        DawgDictionary otherWords = loadOtherWords(filename);
+        WordGraph snapshot = DictionarySnapshot.read(filename);
+        if (snapshot != null) {
+            Log.debug(() -> "loadDictionary: Loaded " + snapshot.size() + " words from snapshot " + DictionarySnapshot.snapshotFileFor(filename));
+            return new Lexicon(filename, lastModified, snapshot, otherWords);
+        }
+        WordGraph graph = new WordGraph(parseDictionary(filename));
+        DictionarySnapshot.write(filename, graph);
+        return new Lexicon(filename, lastModified, graph, otherWords);
+    }
+
+    // The words the 4-letter bitset does not hold, for the dawg backend; null for the packed one.
+    private static DawgDictionary loadOtherWords(String filename) {
+        if (!"dawg".equals(BACKEND)) return null;
+        try {
+            DawgDictionary dawg = DawgDictionary.load(filename, line -> PackedWord.encode(line) == PackedWord.INVALID);
+            if (Log.DEBUG) Log.debug("loadDictionary: Loaded " + dawg.size() + " words of other lengths into a DAWG of " + dawg.edgeCount() + " edges.");
+            return dawg;
+        } catch (IOException e) {
+            Log.error("loading word list: " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    private static PackedDictionary parseDictionary(String filename) {
+        Log.debug(() -> "loadDictionary: Attempting to load dictionary from file: " + filename);
+        PackedDictionary words = new PackedDictionary();
+        try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
+            String line;
+            int loadedCount = 0;
+            int skippedCount = 0;
+            while ((line = reader.readLine()) != null) {
+                int packed = PackedWord.encode(line);
+                if (packed != PackedWord.INVALID) {
+                    words.add(packed);
+                    loadedCount++;
+                } else if (line.length() == PackedWord.LENGTH) {
+                    // Four characters but not all letters (e.g. "a-ok"): the packed dictionary only
+                    // holds a-z, so unlike the old HashSet it cannot keep these as words.
+                    skippedCount++;
+                    if (Log.DEBUG) Log.debug("loadDictionary: Skipping '" + line + "': not made of letters a-z.");
+                }
+            }
+            if (skippedCount > 0) {
+                Log.info("loadDictionary: Skipped " + skippedCount + " 4-character lines of " + filename + " that are not made of letters a-z.");
+            }
+            if (Log.DEBUG) Log.debug("loadDictionary: Successfully loaded " + loadedCount + " 4-letter words. Total unique words in set: " + words.size());
+        } catch (IOException e) {
+            Log.error("loading dictionary: " + e.getMessage(), e);
+        }
+        if (words.isEmpty()) {
+            Log.debug("loadDictionary: Dictionary set is empty after attempting to load.");
+        }
+        return words;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    // The latest version. Read it once and keep the reference to see a consistent snapshot.
+    public Version getVersion() {
+        return current;
+    }
+
+    public WordGraph getGraph() {
+        return current.graph;
+    }
+
+    // Read-only (see PackedDictionary.freeze); use addWord/removeWord to change the dictionary.
+    public PackedDictionary getDictionary() {
+        return current.graph.getDictionary();
+    }
+
+    public PuzzleGenerator getPuzzleGenerator() {
+        return current.puzzleGenerator;
+    }
+
+    public SolutionCache getSolutionCache() {
+        return current.solutionCache;
+    }
+
+    // Membership, prefix and wildcard queries over the latest version (see BACKEND). With the
+    // dawg backend this includes words of every length; the game itself only uses the 4-letter ones.
+    public WordDictionary getWordList() {
+        return current.words;
+    }
+
+    // Number of words in the latest version.
+    public int size() {
+        return current.graph.wordCount();
+    }
+
+    public boolean contains(int packedWord) {
+        return current.graph.getDictionary().contains(packedWord);
+    }
+
+    // Adds a word to the dictionary; games started afterwards can use it. Returns false if the
+    // word is already present or is not a 4-letter word. Changes are applied one at a time.
+    public synchronized boolean addWord(String word) {
+        return publish(current.graph.withWord(word), "added", word);
+    }
+
+    // Removes a word (e.g. a banned one); games already in progress are unaffected.
+    public synchronized boolean removeWord(String word) {
+        return publish(current.graph.withoutWord(word), "removed", word);
+    }
+
+    private boolean publish(WordGraph graph, String change, String word) {
+        Version previous = current;
+        if (graph == previous.graph) return false;
+        current = new Version(previous, graph);
+        if (Log.DEBUG) Log.debug("Lexicon: " + change + " '" + word + "'. Version " + current.number + " has " + graph.wordCount() + " words.");
+        return true;
+    }
+}
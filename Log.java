@@ -0,0 +1,62 @@
+import java.io.PrintStream;
+import java.util.function.Supplier;
+
+// Minimal level-gated logger shared by Model, View, Controller and CLI.
+// The level is read once from the "weaver.log" system property (error, info, debug or trace;
+// default info), so the ENABLED flags are constants the JIT folds away. Hot paths guard with
+// "if (Log.DEBUG)" and everything else passes a Supplier, so disabled messages cost neither
+// string building nor anything else.
+public final class Log {
+
+    public enum Level { ERROR, INFO, DEBUG, TRACE }
+
+    public static final Level LEVEL = parseLevel(System.getProperty("weaver.log", "info"));
+    public static final boolean INFO = LEVEL.compareTo(Level.INFO) >= 0;
+    public static final boolean DEBUG = LEVEL.compareTo(Level.DEBUG) >= 0;
+    public static final boolean TRACE = LEVEL.compareTo(Level.TRACE) >= 0;
+
+    private Log() {
+    }
+
+    private static Level parseLevel(String name) {
+        try {
+            return Level.valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("ERROR Log: Unknown log level '" + name + "', falling back to INFO.");
+            return Level.INFO;
+        }
+    }
+
+    public static void error(String message) {
+        write(System.err, Level.ERROR, message);
+    }
+
+    public static void error(String message, Throwable cause) {
+        write(System.err, Level.ERROR, message);
+        cause.printStackTrace();
+    }
+
+    public static void info(String message) {
+        if (INFO) write(System.out, Level.INFO, message);
+    }
+
+    public static void info(Supplier<String> message) {
+        if (INFO) write(System.out, Level.INFO, message.get());
+    }
+
+    public static void debug(String message) {
+        if (DEBUG) write(System.out, Level.DEBUG, message);
+    }
+
+    public static void debug(Supplier<String> message) {
+        if (DEBUG) write(System.out, Level.DEBUG, message.get());
+    }
+
+    public static void trace(Supplier<String> message) {
+        if (TRACE) write(System.out, Level.TRACE, message.get());
+    }
+
+    private static void write(PrintStream out, Level level, String message) {
+        out.println(level + " " + message);
+    }
+}
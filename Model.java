@@ -1,17 +1,24 @@
-import java.util.Observable;
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
-import java.util.Queue;
-import java.util.LinkedList;
-import java.util.Set;
-import java.util.HashSet;
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
 
-public class Model extends Observable {
+public class Model {
+
+    private static final BooleanSupplier NOT_CANCELLED = () -> false;
+
+    // Shared by all Models; background path searches never run on the caller's (e.g. Swing's) thread.
+    private static final ExecutorService SOLVER_EXECUTOR = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1), runnable -> {
+                Thread thread = new Thread(runnable, "weaver-solver");
+                thread.setDaemon(true);
+                return thread;
+            });
 
     public static enum FeedbackState {
         CORRECT_POSITION,
@@ -19,6 +26,18 @@ public class Model extends Observable {
     }
 
     public static class LetterFeedback {
+        // Shared instances for ASCII letters: [state][letter], lower case first, then upper case.
+        private static final LetterFeedback[][] SHARED = new LetterFeedback[FeedbackState.values().length][52];
+
+        static {
+            for (FeedbackState state : FeedbackState.values()) {
+                for (int i = 0; i < 26; i++) {
+                    SHARED[state.ordinal()][i] = new LetterFeedback((char) ('a' + i), state);
+                    SHARED[state.ordinal()][26 + i] = new LetterFeedback((char) ('A' + i), state);
+                }
+            }
+        }
+
         public final char letter;
         public final FeedbackState state;
 
@@ -27,122 +46,224 @@ public class Model extends Observable {
             this.state = state;
         }
 
+        // Immutable, so letters share one instance per state; other characters get a new one.
+        public static LetterFeedback of(char letter, FeedbackState state) {
+            if (letter >= 'a' && letter <= 'z') return SHARED[state.ordinal()][letter - 'a'];
+            if (letter >= 'A' && letter <= 'Z') return SHARED[state.ordinal()][26 + letter - 'A'];
+            return new LetterFeedback(letter, state);
+        }
+
         @Override
         public String toString() {
             return "{" + letter + "," + state + "}";
         }
     }
 
-    private String startWord;
-    private String targetWord;
-    private Set<String> dictionary;
-    private List<String> gameHistory;
-    private boolean showErrorMessage;
-    private boolean showPath;
-    private boolean useRandomWords;
-    private LetterFeedback[] lastGuessFeedback;
+    public static class Puzzle {
+        public final String startWord;
+        public final String targetWord;
+        // Number of moves in the optimal ladder.
+        public final int length;
 
-    public Model() {
-        System.out.println("DEBUG Model Constructor: Initializing Model...");
-        dictionary = loadDictionary("dictionary.txt");
-        gameHistory = new ArrayList<>();
-        showErrorMessage = true;
-        showPath = false;
-        useRandomWords = false;
-        initializeGame();
-        System.out.println("DEBUG Model Constructor: Model initialized. Dictionary size: " + (dictionary != null ? dictionary.size() : "null or not loaded") + ", showPath initial: " + this.showPath);
-    }
-
-    private Set<String> loadDictionary(String filename) {
-        System.out.println("DEBUG loadDictionary: Attempting to load dictionary from file: " + filename);
-        Set<String> words = new HashSet<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
-            String line;
-            int loadedCount = 0;
-            while ((line = reader.readLine()) != null) {
-                if (line.length() == 4) {
-                    words.add(line.toLowerCase().trim());
-                    loadedCount++;
-                }
-            }
-            System.out.println("DEBUG loadDictionary: Successfully loaded " + loadedCount + " 4-letter words. Total unique words in set: " + words.size());
-        } catch (IOException e) {
-            System.err.println("ERROR loading dictionary: " + e.getMessage());
-            e.printStackTrace();
+        public Puzzle(String startWord, String targetWord, int length) {
+            this.startWord = startWord;
+            this.targetWord = targetWord;
+            this.length = length;
+        }
+
+        @Override
+        public String toString() {
+            return startWord + "->" + targetWord + " (" + length + ")";
+        }
+    }
+
+    // How well the player is doing against the optimal ladder. efficiency is the net progress
+    // towards the target per move made, (optimalMoves - movesRemaining) / movesMade: 1.0 for an
+    // optimal game so far, lower for every move that did not bring the player closer, and 0.0
+    // while the player is no closer than at the start.
+    public static class Score {
+        public final int optimalMoves;
+        public final int movesMade;
+        public final int detours;
+        public final int movesRemaining;
+        public final boolean won;
+
+        public Score(int optimalMoves, int movesMade, int detours, int movesRemaining, boolean won) {
+            this.optimalMoves = optimalMoves;
+            this.movesMade = movesMade;
+            this.detours = detours;
+            this.movesRemaining = movesRemaining;
+            this.won = won;
         }
-        if (words.isEmpty()) {
-            System.out.println("DEBUG loadDictionary: Dictionary set is empty after attempting to load.");
+
+        public double efficiency() {
+            if (movesMade == 0) return 1.0;
+            if (optimalMoves < 0 || movesRemaining < 0) return 0.0;
+            return Math.max(0, optimalMoves - movesRemaining) / (double) movesMade;
         }
-        return words;
+
+        @Override
+        public String toString() {
+            return movesMade + " moves (optimal " + optimalMoves + ", " + detours + " detours, efficiency "
+                    + Math.round(efficiency() * 100) + "%)";
+        }
+    }
+
+    // Shared, read-only dictionary data; everything else in a Model is per-game state.
+    // Each game captures the Lexicon's latest Version when it starts and keeps it to the end.
+    private final Lexicon lexicon;
+    private final ModelEventBus events = new ModelEventBus();
+    // The current game. Writers (synchronized on this Model) replace it with a new snapshot and
+    // then publish their events, so listeners see events in the order of the changes; readers
+    // just read the field once and never lock.
+    private volatile GameSnapshot state;
+    // In-flight getSolutionPathAsync result and the puzzle and dictionary version it is for.
+    // Only one search runs at a time: a request for anything else cancels it.
+    private volatile CompletableFuture<List<String>> pendingSolution;
+    private volatile Lexicon.Version pendingVersion;
+    private volatile String pendingStart;
+    private volatile String pendingTarget;
+    // Search used for solution paths. Every strategy finds a shortest ladder, so changing it
+    // mid-game only changes how the next search runs, not what the player is shown.
+    private volatile LadderSolver.Strategy solverStrategy = LadderSolver.Strategy.DEFAULT;
+
+    public Model() {
+        this(Lexicon.load("dictionary.txt"));
     }
 
-    public void initializeGame() {
-        System.out.println("DEBUG initializeGame: Initializing game. useRandomWords: " + useRandomWords);
-        if (useRandomWords) {
-            System.out.println("DEBUG initializeGame: Using random words.");
+    // Games created from the same Lexicon share its dictionary and indexes by reference.
+    public Model(Lexicon lexicon) {
+        Log.debug("Model Constructor: Initializing Model...");
+        this.lexicon = lexicon;
+        this.state = GameSnapshot.initial(lexicon.getVersion());
+        initializeGame();
+        if (Log.DEBUG) Log.debug("Model Constructor: Model initialized. Dictionary size: " + getDictionarySize() + ", showPath initial: " + state.showPath);
+    }
+
+    // The whole current game in one consistent, immutable view.
+    public GameSnapshot getSnapshot() {
+        return state;
+    }
+
+    // Picks up words added to or removed from the Lexicon since the previous game.
+    public synchronized void initializeGame() {
+        GameSnapshot current = state;
+        if (Log.DEBUG) Log.debug("initializeGame: Initializing game. useRandomWords: " + current.useRandomWords);
+        cancelPendingSolution();
+        Lexicon.Version version = lexicon.getVersion();
+        WordGraph wordGraph = version.graph;
+        PackedDictionary dictionary = wordGraph.getDictionary();
+        String startWord;
+        String targetWord;
+        if (current.useRandomWords) {
+            Log.debug("initializeGame: Using random words.");
             if (dictionary == null || dictionary.isEmpty()) {
-                System.err.println("ERROR initializeGame: Dictionary is empty or not loaded. Cannot set random words.");
-                startWord = "err_";
-                targetWord = "dict";
-                gameHistory.clear();
-                lastGuessFeedback = null;
-                setChanged();
-                notifyObservers("reset_error_dict");
+                Log.error("initializeGame: Dictionary is empty or not loaded. Cannot set random words.");
+                state = current.withBrokenGame(version, "err_", "dict");
+                events.publish(ModelEvent.gameResetError("err_", "dict", "Dictionary is empty or not loaded."));
                 return;
             }
             Random rand = new Random();
             int dictSize = dictionary.size();
             if (dictSize == 0) {
-                System.err.println("ERROR initializeGame: Dictionary size is 0. Cannot pick random words.");
-                startWord = "zero";
-                targetWord = "size";
-                gameHistory.clear();
-                lastGuessFeedback = null;
-                setChanged();
-                notifyObservers("reset_error_dict_empty");
+                Log.error("initializeGame: Dictionary size is 0. Cannot pick random words.");
+                state = current.withBrokenGame(version, "zero", "size");
+                events.publish(ModelEvent.gameResetError("zero", "size", "Dictionary size is 0."));
                 return;
             }
-            List<String> dictList = new ArrayList<>(dictionary);
-            startWord = dictList.get(rand.nextInt(dictSize));
-            if (dictSize > 1) {
+            if (wordGraph.pairableWordCount() > 0) {
+                // Draw the target from the start word's own component so a ladder always exists.
+                int startId = wordGraph.randomPairableWord(rand);
+                int component = wordGraph.componentOf(startId);
+                int targetId;
+                do {
+                    targetId = wordGraph.componentMember(component, rand.nextInt(wordGraph.componentSize(component)));
+                } while (targetId == startId);
+                startWord = wordGraph.wordAt(startId);
+                targetWord = wordGraph.wordAt(targetId);
+            } else if (dictSize > 1) {
+                Log.info("initializeGame: No two dictionary words are connected. The random puzzle will not be solvable.");
+                // Ids are slots: removed words leave gaps and added words go after them.
+                startWord = wordGraph.wordAt(wordGraph.randomWord(rand));
+                String target;
                 do {
-                    targetWord = dictList.get(rand.nextInt(dictSize));
-                } while (startWord.equals(targetWord));
+                    target = wordGraph.wordAt(wordGraph.randomWord(rand));
+                } while (startWord.equals(target));
+                targetWord = target;
             } else {
+                startWord = wordGraph.wordAt(wordGraph.randomWord(rand));
                 targetWord = startWord;
-                System.out.println("DEBUG initializeGame: Dictionary has only one word. Start and target will be the same: " + startWord);
+                if (Log.DEBUG) Log.debug("initializeGame: Dictionary has only one word. Start and target will be the same: " + targetWord);
             }
         } else {
-            System.out.println("DEBUG initializeGame: Using default words.");
+            Log.debug("initializeGame: Using default words.");
             startWord = "sale";
             targetWord = "same";
         }
-        System.out.println("DEBUG initializeGame: Start word set to: '" + startWord + "', Target word set to: '" + targetWord + "'");
-        gameHistory.clear();
-        lastGuessFeedback = null;
-        System.out.println("DEBUG initializeGame: Game history cleared.");
-        setChanged();
-        notifyObservers("reset");
+        if (Log.DEBUG) Log.debug("initializeGame: Start word set to: '" + startWord + "', Target word set to: '" + targetWord + "'");
+        state = current.withGame(version, startWord, targetWord);
+        Log.debug("initializeGame: Game history cleared.");
+        events.publish(ModelEvent.gameReset(startWord, targetWord));
     }
 
-    public boolean isValidWord(String word) {
-        if (word == null) return false;
-        if (word.length() != 4) return false;
-        String lowerCaseWord = word.toLowerCase();
-        if (dictionary == null || dictionary.isEmpty()) return false;
-        boolean found = dictionary.contains(lowerCaseWord);
-        // Limit logging during pathfinding unless the word is not found or showPath is explicitly on.
-        if (isShowPath() || !found || Thread.currentThread().getStackTrace()[2].getMethodName().equals("makeMove") || Thread.currentThread().getStackTrace()[2].getMethodName().equals("isValidMove")) {
-            System.out.println("DEBUG isValidWord: Validating '" + lowerCaseWord + "'. Length is 4. Dict size: " + dictionary.size() + ". Found: " + found);
+    // Starts a game with the given words, e.g. a puzzle from generatePuzzle.
+    public synchronized void initializeGame(String startWord, String targetWord) {
+        Lexicon.Version version = lexicon.getVersion();
+        PackedDictionary dictionary = version.graph.getDictionary();
+        if (!contains(dictionary, startWord) || !contains(dictionary, targetWord)) {
+            throw new IllegalArgumentException("Start and target must be dictionary words: '" + startWord + "', '" + targetWord + "'");
         }
+        cancelPendingSolution();
+        String start = startWord.toLowerCase();
+        String target = targetWord.toLowerCase();
+        if (Log.DEBUG) Log.debug("initializeGame: Start word set to: '" + start + "', Target word set to: '" + target + "'");
+        state = state.withGame(version, start, target);
+        events.publish(ModelEvent.gameReset(start, target));
+    }
+
+    // Checked against the version a new game is about to use rather than the current game's.
+    private static boolean contains(PackedDictionary dictionary, String word) {
+        if (WeaverMetrics.ENABLED) WeaverMetrics.recordWordValidation();
+        return dictionary.contains(PackedWord.encode(word));
+    }
+
+    // Returns a random puzzle whose optimal ladder takes between minLength and maxLength moves,
+    // or null if the dictionary has no such pair. The same seed always yields the same puzzle.
+    public Puzzle generatePuzzle(int minLength, int maxLength, long seed) {
+        return lexicon.getPuzzleGenerator().generate(minLength, maxLength, seed);
+    }
+
+    public Puzzle generatePuzzle(int length, long seed) {
+        return generatePuzzle(length, length, seed);
+    }
+
+    // Checked against the game's word list (see Lexicon.BACKEND), which with the dawg backend
+    // also holds words of other lengths; moves additionally need isValidMove.
+    public boolean isValidWord(String word) {
+        if (WeaverMetrics.ENABLED) WeaverMetrics.recordWordValidation();
+        boolean found = word != null && state.version.words.contains(word);
+        // Called for every guess and move check, so this only logs at trace level.
+        if (Log.TRACE) Log.trace(() -> "isValidWord: Validating '" + word + "'. Dict size: " + getDictionarySize() + ". Found: " + found);
         return found;
     }
 
+    // Packed-word overload (see PackedWord): a single bit test, no allocation.
+    public boolean isValidWord(int packedWord) {
+        if (WeaverMetrics.ENABLED) WeaverMetrics.recordWordValidation();
+        PackedDictionary dictionary = state.dictionary;
+        return dictionary != null && dictionary.contains(packedWord);
+    }
+
     public boolean isValidMove(String prevWord, String newWord) {
         if (prevWord == null || newWord == null) return false;
         if (!isValidWord(newWord)) return false;
         if (prevWord.length() != 4) return false;
 
+        int packedPrev = PackedWord.encode(prevWord);
+        if (packedPrev != PackedWord.INVALID) {
+            return isValidMove(packedPrev, PackedWord.encode(newWord));
+        }
+        // The previous word is not made of letters (e.g. an error placeholder), so compare characters directly.
         String lowerPrevWord = prevWord.toLowerCase();
         String lowerNewWord = newWord.toLowerCase();
         int differences = 0;
@@ -154,85 +275,138 @@ public class Model extends Observable {
         return differences == 1;
     }
 
+    public boolean isValidMove(int packedPrevWord, int packedNewWord) {
+        if (packedPrevWord < 0 || !isValidWord(packedNewWord)) return false;
+        return PackedWord.differences(packedPrevWord, packedNewWord) == 1;
+    }
+
     public LetterFeedback[] checkGuess(String guessedWord) {
+        return checkGuess(guessedWord, state.targetWord);
+    }
+
+    private static LetterFeedback[] checkGuess(String guessedWord, String targetWord) {
         if (guessedWord == null || guessedWord.length() != 4 || targetWord == null || targetWord.length() != 4) {
             LetterFeedback[] defaultFeedback = new LetterFeedback[4];
             char[] guessChars = guessedWord != null ? guessedWord.toCharArray() : new char[]{' ', ' ', ' ', ' '};
             for (int i = 0; i < 4; i++) {
-                defaultFeedback[i] = new LetterFeedback(i < guessChars.length ? guessChars[i] : ' ', FeedbackState.NOT_IN_WORD);
+                defaultFeedback[i] = LetterFeedback.of(i < guessChars.length ? guessChars[i] : ' ', FeedbackState.NOT_IN_WORD);
             }
             return defaultFeedback;
         }
         LetterFeedback[] feedbackArray = new LetterFeedback[4];
-        String target = targetWord.toLowerCase();
-        String guess = guessedWord.toLowerCase();
+        int feedback = PackedFeedback.of(PackedWord.encode(guessedWord), PackedWord.encode(targetWord));
         for (int i = 0; i < 4; i++) {
             char originalGuessedChar = guessedWord.charAt(i);
-            char lowerGuessedChar = guess.charAt(i);
-            FeedbackState state = (lowerGuessedChar == target.charAt(i)) ? FeedbackState.CORRECT_POSITION : FeedbackState.NOT_IN_WORD;
-            feedbackArray[i] = new LetterFeedback(originalGuessedChar, state);
+            FeedbackState letterState;
+            if (feedback != PackedFeedback.INVALID) {
+                letterState = PackedFeedback.stateAt(feedback, i);
+            } else {
+                // Not four letters (e.g. a digit), so compare characters directly.
+                letterState = Character.toLowerCase(originalGuessedChar) == Character.toLowerCase(targetWord.charAt(i)) ? FeedbackState.CORRECT_POSITION : FeedbackState.NOT_IN_WORD;
+            }
+            feedbackArray[i] = LetterFeedback.of(originalGuessedChar, letterState);
         }
         return feedbackArray;
     }
 
-    public boolean makeMove(String word) {
-        System.out.println("DEBUG makeMove: Attempting to make move with word: '" + (word == null ? "null" : word) + "'");
+    // Allocation-free scoring (see PackedFeedback); INVALID when the guess or target is not
+    // four letters.
+    public int scoreGuess(String guessedWord) {
+        return scoreGuess(PackedWord.encode(guessedWord));
+    }
+
+    public int scoreGuess(int packedGuess) {
+        return PackedFeedback.of(packedGuess, PackedWord.encode(state.targetWord));
+    }
+
+    public synchronized boolean makeMove(String word) {
+        if (Log.DEBUG) Log.debug("makeMove: Attempting to make move with word: '" + (word == null ? "null" : word) + "'");
         if (word == null) {
-            System.out.println("DEBUG makeMove: Input word is null. Returning false.");
+            Log.debug("makeMove: Input word is null. Returning false.");
             return false;
         }
 
+        GameSnapshot current = state;
+        long validationStart = WeaverMetrics.ENABLED ? System.nanoTime() : 0L;
         String lowerCaseWordInput = word.toLowerCase();
-        String prevWord = gameHistory.isEmpty() ? startWord : gameHistory.get(gameHistory.size() - 1);
+        String prevWord = current.currentWord();
 
         if (prevWord == null) {
-            System.err.println("ERROR makeMove: Previous word is null. Cannot make a move to '" + lowerCaseWordInput + "'.");
-            if (showErrorMessage) {
-                setChanged();
-                notifyObservers("Error: Previous word not set!");
+            Log.error("makeMove: Previous word is null. Cannot make a move to '" + lowerCaseWordInput + "'.");
+            if (current.showErrorMessage) {
+                events.publish(ModelEvent.error("Error: Previous word not set!"));
             }
             return false;
         }
-        System.out.println("DEBUG makeMove: Previous word for move check is: '" + prevWord + "'");
+        if (Log.DEBUG) Log.debug("makeMove: Previous word for move check is: '" + prevWord + "'");
 
-        if (!isValidMove(prevWord, lowerCaseWordInput)) {
-            System.out.println("DEBUG makeMove: Move from '" + prevWord + "' to '" + lowerCaseWordInput + "' is invalid. Returning false.");
-            this.lastGuessFeedback = checkGuess(word);
-            setChanged();
-            if (showErrorMessage) {
-                notifyObservers("invalid_move_feedback");
-            } else {
-                notifyObservers("invalid_move_no_error_feedback");
-            }
+        boolean valid = isValidMove(prevWord, lowerCaseWordInput);
+        if (WeaverMetrics.ENABLED) WeaverMetrics.recordMove(valid, System.nanoTime() - validationStart);
+        if (!valid) {
+            if (Log.DEBUG) Log.debug("makeMove: Move from '" + prevWord + "' to '" + lowerCaseWordInput + "' is invalid. Returning false.");
+            state = current.withRejectedGuess(checkGuess(word, current.targetWord));
+            events.publish(ModelEvent.moveRejected(lowerCaseWordInput));
             return false;
         }
 
-        gameHistory.add(lowerCaseWordInput);
-        this.lastGuessFeedback = checkGuess(word);
-        System.out.println("DEBUG makeMove: Successfully moved to '" + lowerCaseWordInput + "'. History: " + gameHistory);
-        setChanged();
-        notifyObservers("move_successful_feedback");
+        GameSnapshot next = current.withMove(lowerCaseWordInput, checkGuess(word, current.targetWord));
+        state = next;
+        if (Log.DEBUG) Log.debug("makeMove: Successfully moved to '" + lowerCaseWordInput + "'. History: " + next.history);
+        events.publish(ModelEvent.moveAccepted(lowerCaseWordInput));
         return true;
     }
 
+    // Takes back the last move. Detours already made still count towards the score.
+    public synchronized boolean undo() {
+        GameSnapshot current = state;
+        if (!current.canUndo()) return false;
+        String undone = current.history.last();
+        WordHistory redoHistory = current.redoHistory != null ? current.redoHistory : current.history;
+        GameSnapshot next = current.withHistory(current.history.withoutLast(), redoHistory);
+        state = next;
+        if (Log.DEBUG) Log.debug("undo: Took back '" + undone + "'. History: " + next.history);
+        events.publish(ModelEvent.moveUndone(undone));
+        return true;
+    }
+
+    // Plays the most recently undone move again, until a new move is made.
+    public synchronized boolean redo() {
+        GameSnapshot current = state;
+        if (!current.canRedo()) return false;
+        WordHistory history = current.redoHistory.prefix(current.history.size() + 1);
+        GameSnapshot next = current.withHistory(history, history.size() == current.redoHistory.size() ? null : current.redoHistory);
+        state = next;
+        String redone = history.last();
+        if (Log.DEBUG) Log.debug("redo: Played '" + redone + "' again. History: " + next.history);
+        events.publish(ModelEvent.moveRedone(redone));
+        return true;
+    }
+
+    public boolean canUndo() {
+        return state.canUndo();
+    }
+
+    public boolean canRedo() {
+        return state.canRedo();
+    }
+
     public boolean hasWon() {
-        if (gameHistory.isEmpty()) return false;
-        boolean won = gameHistory.get(gameHistory.size() - 1).equals(targetWord);
-        return won;
+        return state.hasWon();
     }
 
     public List<String> getDisplayableSolutionPath() {
-        System.out.println("DEBUG Model.getDisplayableSolutionPath: Method called. isShowPath() = " + isShowPath());
-        if (!isShowPath() || dictionary == null || dictionary.isEmpty()) {
-            System.out.println("DEBUG Model.getDisplayableSolutionPath: showPath is false or dictionary invalid. Returning empty list.");
+        GameSnapshot current = state;
+        if (Log.DEBUG) Log.debug("Model.getDisplayableSolutionPath: Method called. isShowPath() = " + current.showPath);
+        if (!current.showPath || current.dictionary == null || current.dictionary.isEmpty()) {
+            Log.debug("Model.getDisplayableSolutionPath: showPath is false or dictionary invalid. Returning empty list.");
             return Collections.emptyList();
         }
-        String actualStartWord = this.startWord;
-        String actualTargetWord = this.targetWord;
+        String actualStartWord = current.startWord;
+        String actualTargetWord = current.targetWord;
 
-        System.out.println("DEBUG Model.getDisplayableSolutionPath: Finding path from '" + actualStartWord + "' to '" + actualTargetWord + "'");
+        if (Log.DEBUG) Log.debug("Model.getDisplayableSolutionPath: Finding path from '" + actualStartWord + "' to '" + actualTargetWord + "'");
         if (actualStartWord == null || actualTargetWord == null || actualStartWord.isEmpty() || actualTargetWord.isEmpty()) {
-            System.out.println("DEBUG Model.getDisplayableSolutionPath: Start or target word is null/empty. Returning empty list.");
+            Log.debug("Model.getDisplayableSolutionPath: Start or target word is null/empty. Returning empty list.");
             return Collections.emptyList();
         }
 
@@ -240,104 +414,299 @@ public class Model extends Observable {
         actualTargetWord = actualTargetWord.toLowerCase();
 
         if (actualStartWord.equals(actualTargetWord)) {
-            System.out.println("DEBUG Model.getDisplayableSolutionPath: Start and target are same. Returning list with just start: [" + actualStartWord + "]");
+            if (Log.DEBUG) Log.debug("Model.getDisplayableSolutionPath: Start and target are same. Returning list with just start: [" + actualStartWord + "]");
             return Collections.singletonList(actualStartWord);
         }
 
-        Queue<List<String>> queue = new LinkedList<>();
-        Set<String> visited = new HashSet<>();
-        List<String> initialPath = new ArrayList<>();
-        initialPath.add(actualStartWord);
-        queue.add(initialPath);
-        visited.add(actualStartWord);
-
-        int pathsExplored = 0;
-        while (!queue.isEmpty() && pathsExplored < 50000) {
-            pathsExplored++;
-            List<String> currentPath = queue.poll();
-            String currentWord = currentPath.get(currentPath.size() - 1);
-            if (currentWord.equals(actualTargetWord)) {
-                System.out.println("DEBUG Model.getDisplayableSolutionPath: Path found: " + currentPath);
-                return currentPath;
-            }
-            for (String neighbor : findNeighbors(currentWord)) {
-                if (!visited.contains(neighbor)) {
-                    visited.add(neighbor);
-                    List<String> newPath = new ArrayList<>(currentPath);
-                    newPath.add(neighbor);
-                    queue.add(newPath);
-                }
+        return solvePath(current.version, solverStrategy.create(current.graph), actualStartWord, actualTargetWord, NOT_CANCELLED);
+    }
+
+    // Computes a shortest ladder for the current puzzle on a background thread, so callers such
+    // as the View never block on the search. Unlike getDisplayableSolutionPath this ignores the
+    // showPath flag. The future completes with an empty list when no ladder exists, and is
+    // cancelled (stopping the search) as soon as a new game is initialised.
+    public CompletableFuture<List<String>> getSolutionPathAsync() {
+        return getSolutionPathAsync(state);
+    }
+
+    // The same for the puzzle of a snapshot taken earlier (see getSnapshot), solved on that
+    // snapshot's dictionary version, so a caller rendering from the snapshot gets its ladder.
+    // The future shares the single pending slot: it is cancelled by initializeGame and by a
+    // later request for another puzzle or version, so callers must handle cancellation (e.g. by
+    // asking again for the snapshot they then show).
+    public synchronized CompletableFuture<List<String>> getSolutionPathAsync(GameSnapshot current) {
+        String start = current.startWord;
+        String target = current.targetWord;
+        CompletableFuture<List<String>> pending = pendingSolution;
+        if (pending != null && !pending.isCancelled() && current.version == pendingVersion
+                && start != null && start.equals(pendingStart) && target != null && target.equals(pendingTarget)) {
+            return pending;
+        }
+        // cancelPendingSolution can no longer reach a displaced search, so stop it here.
+        if (pending != null) pending.cancel(true);
+        CompletableFuture<List<String>> future = new CompletableFuture<>();
+        pendingSolution = future;
+        pendingVersion = current.version;
+        pendingStart = start;
+        pendingTarget = target;
+        if (start == null || target == null) {
+            future.complete(Collections.emptyList());
+            return future;
+        }
+        Lexicon.Version gameVersion = current.version;
+        LadderSolver.Strategy strategy = solverStrategy;
+        SOLVER_EXECUTOR.execute(() -> {
+            if (future.isDone()) return;
+            try {
+                List<String> path = solvePath(gameVersion, strategy.create(gameVersion.graph), start.toLowerCase(), target.toLowerCase(), future::isDone);
+                future.complete(path);
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
             }
+        });
+        return future;
+    }
+
+    private void cancelPendingSolution() {
+        CompletableFuture<List<String>> pending = pendingSolution;
+        if (pending != null) {
+            pending.cancel(true);
+            pendingSolution = null;
         }
-        if (queue.isEmpty() && pathsExplored < 50000) {
-            System.out.println("DEBUG Model.getDisplayableSolutionPath: BFS queue became empty. No path found after exploring " + pathsExplored + " options. Returning empty list.");
-        } else if (pathsExplored >= 50000) {
-            System.out.println("DEBUG Model.getDisplayableSolutionPath: Path exploration limit reached ("+ pathsExplored +"). No path found. Returning empty list.");
-        }
-        return Collections.emptyList();
-    }
-
-    private List<String> findNeighbors(String word) {
-        List<String> neighbors = new ArrayList<>();
-        char[] chars = word.toCharArray();
-        for (int i = 0; i < word.length(); i++) {
-            char originalChar = chars[i];
-            for (char c = 'a'; c <= 'z'; c++) {
-                if (c == originalChar) continue;
-                chars[i] = c;
-                String newWord = new String(chars);
-                if (isValidWord(newWord)) {
-                    neighbors.add(newWord);
-                }
+    }
+
+    // Runs on the caller's or a solver thread, so it only reads the given version, never the fields.
+    private static List<String> solvePath(Lexicon.Version version, LadderSolver solver, String start, String target, BooleanSupplier cancelled) {
+        if (start.equals(target)) {
+            return Collections.singletonList(start);
+        }
+        WordGraph wordGraph = version.graph;
+        if (!wordGraph.isConnected(wordGraph.idOf(start), wordGraph.idOf(target))) {
+            Log.debug("Model.solvePath: Start and target are not in the same component. Returning empty list.");
+            return Collections.emptyList();
+        }
+        SolutionCache cache = version.solutionCache;
+        int packedStart = PackedWord.encode(start);
+        int packedTarget = PackedWord.encode(target);
+        List<String> cached = cache.get(packedStart, packedTarget);
+        if (WeaverMetrics.ENABLED) WeaverMetrics.recordSolutionCache(cached != null);
+        if (cached != null) {
+            if (Log.DEBUG) Log.debug("Model.solvePath: Cache hit for " + start + " -> " + target + ": " + cached);
+            return cached;
+        }
+        int[] pathIds = solver.solve(wordGraph.idOf(start), wordGraph.idOf(target), cancelled);
+        if (WeaverMetrics.ENABLED) WeaverMetrics.recordSolve(solver.getNodesExpanded());
+        if (pathIds == null) {
+            if (Log.DEBUG) Log.debug("Model.solvePath: " + describe(solver) + " stopped. No path found. Returning empty list.");
+            return Collections.emptyList();
+        }
+        List<String> path = new ArrayList<>(pathIds.length);
+        for (int id : pathIds) {
+            path.add(wordGraph.wordAt(id));
+        }
+        path = cache.put(packedStart, packedTarget, path);
+        if (Log.DEBUG) Log.debug("Model.solvePath: " + describe(solver) + " found path: " + path);
+        return path;
+    }
+
+    private static String describe(LadderSolver solver) {
+        return solver.getClass().getSimpleName() + " (" + solver.getNodesExpanded() + " words expanded in "
+                + solver.getElapsedNanos() / 1000 + " us)";
+    }
+
+    // True when a ladder exists between the two words; a constant-time component lookup.
+    public boolean isSolvable(String start, String target) {
+        WordGraph wordGraph = state.graph;
+        return wordGraph.isConnected(wordGraph.idOf(start), wordGraph.idOf(target));
+    }
+
+    // Number of moves on a shortest ladder from the word to the current target, or -1 when the
+    // word is not in the dictionary or cannot reach the target. A single array lookup.
+    public int distanceToTarget(String word) {
+        return state.distanceTo(word);
+    }
+
+    // A neighbour of the word that is one step closer to the target, or null when the word is
+    // the target itself or no ladder exists. Ties go to the alphabetically first neighbour.
+    public String suggestNextMove(String currentWord) {
+        GameSnapshot current = state;
+        DistanceLayers distances = current.targetDistances;
+        WordGraph wordGraph = current.graph;
+        int id = wordGraph.idOf(currentWord);
+        if (distances == null || id < 0) return null;
+        int distance = distances.distanceTo(id);
+        if (distance <= 0) return null;
+        if (WeaverMetrics.ENABLED) WeaverMetrics.recordNeighborLookup();
+        for (int neighbor : wordGraph.neighbors(id)) {
+            if (distances.distanceTo(neighbor) == distance - 1) {
+                return wordGraph.wordAt(neighbor);
             }
-            chars[i] = originalChar;
+        }
+        return null;
+    }
+
+    // Every shortest ladder for the current puzzle; counting is linear, ladders are streamed lazily.
+    public ShortestLadders getShortestLadders() {
+        GameSnapshot current = state;
+        return getShortestLadders(current, current.startWord, current.targetWord);
+    }
+
+    public ShortestLadders getShortestLadders(String start, String target) {
+        return getShortestLadders(state, start, target);
+    }
+
+    private static ShortestLadders getShortestLadders(GameSnapshot game, String start, String target) {
+        WordGraph wordGraph = game.graph;
+        int startId = wordGraph.idOf(start);
+        int targetId = wordGraph.idOf(target);
+        if (startId < 0 || targetId < 0) {
+            throw new IllegalArgumentException("Start and target must be dictionary words: '" + start + "', '" + target + "'");
+        }
+        PuzzleGenerator layers = game.version.puzzleGenerator;
+        return new ShortestLadders(wordGraph, startId, layers.layersFrom(startId), layers.layersFrom(targetId));
+    }
+
+    public long countShortestLadders() {
+        return getShortestLadders().count();
+    }
+
+    // True once the player has won using one of the shortest ladders.
+    public boolean isOptimalSolution() {
+        GameSnapshot current = state;
+        if (!current.hasWon()) return false;
+        List<String> ladder = new ArrayList<>(current.history.size() + 1);
+        ladder.add(current.startWord);
+        ladder.addAll(current.history);
+        return getShortestLadders(current, current.startWord, current.targetWord).isShortestLadder(ladder);
+    }
+
+    // Optimal number of moves still needed from the player's last word, or -1 if unreachable.
+    public int getMovesRemaining() {
+        return state.currentDistance;
+    }
+
+    public Score getScore() {
+        return state.score();
+    }
+
+    // The word the next move starts from: the last accepted move, or the start word.
+    public String getCurrentWord() {
+        return state.currentWord();
+    }
+
+    // Id of the connected component containing the word, or -1 if it is not in the dictionary.
+    // Two words are connected by a ladder exactly when their component ids are equal.
+    public int componentOf(String word) {
+        WordGraph wordGraph = state.graph;
+        return wordGraph.componentOf(wordGraph.idOf(word));
+    }
+
+    public List<String> findNeighbors(String word) {
+        if (WeaverMetrics.ENABLED) WeaverMetrics.recordNeighborLookup();
+        WordGraph wordGraph = state.graph;
+        int id = wordGraph.idOf(word);
+        if (id < 0) return Collections.emptyList();
+        int[] neighborIds = wordGraph.neighbors(id);
+        List<String> neighbors = new ArrayList<>(neighborIds.length);
+        for (int neighborId : neighborIds) {
+            neighbors.add(wordGraph.wordAt(neighborId));
         }
         return neighbors;
     }
 
-    public String getStartWord() { return startWord; }
-    public String getTargetWord() { return targetWord; }
-    public List<String> getGameHistory() { return new ArrayList<>(gameHistory); }
-    public Model.LetterFeedback[] getLastGuessFeedback() { return lastGuessFeedback; }
+    public String getStartWord() { return state.startWord; }
+    public String getTargetWord() { return state.targetWord; }
+    // Immutable snapshot; later moves, undos and redos do not change it, so there is nothing to copy.
+    public List<String> getGameHistory() { return state.history; }
+    public Model.LetterFeedback[] getLastGuessFeedback() { return state.lastGuessFeedback(); }
 
-    public void setShowErrorMessage(boolean show) {
-        System.out.println("DEBUG Model.setShowErrorMessage: Called with show = " + show + ". Current this.showErrorMessage = " + this.showErrorMessage);
-        if (this.showErrorMessage != show) {
-            this.showErrorMessage = show;
-            System.out.println("DEBUG Model.setShowErrorMessage: this.showErrorMessage is NOW " + this.showErrorMessage);
-            setChanged();
-            notifyObservers("flag_changed_showError_" + show);
+    public synchronized void setShowErrorMessage(boolean show) {
+        GameSnapshot current = state;
+        if (Log.DEBUG) Log.debug("Model.setShowErrorMessage: Called with show = " + show + ". Current showErrorMessage = " + current.showErrorMessage);
+        if (current.showErrorMessage != show) {
+            state = current.withSettings(show, current.showPath, current.useRandomWords);
+            if (Log.DEBUG) Log.debug("Model.setShowErrorMessage: showErrorMessage is NOW " + show);
+            events.publish(ModelEvent.flagChanged(ModelEvent.Type.SHOW_ERRORS_CHANGED, show));
         } else {
-            System.out.println("DEBUG Model.setShowErrorMessage: Flag value did not change.");
+            Log.debug("Model.setShowErrorMessage: Flag value did not change.");
         }
     }
-    public void setShowPath(boolean show) {
-        System.out.println("DEBUG Model.setShowPath: Called with show = " + show + ". Current this.showPath = " + this.showPath);
-        if (this.showPath != show) {
-            this.showPath = show;
-            System.out.println("DEBUG Model.setShowPath: this.showPath is NOW " + this.showPath);
-            setChanged();
-            notifyObservers("flag_changed_showPath_" + show);
+    public synchronized void setShowPath(boolean show) {
+        GameSnapshot current = state;
+        if (Log.DEBUG) Log.debug("Model.setShowPath: Called with show = " + show + ". Current showPath = " + current.showPath);
+        if (current.showPath != show) {
+            state = current.withSettings(current.showErrorMessage, show, current.useRandomWords);
+            if (Log.DEBUG) Log.debug("Model.setShowPath: showPath is NOW " + show);
+            events.publish(ModelEvent.flagChanged(ModelEvent.Type.SHOW_PATH_CHANGED, show));
         } else {
-            System.out.println("DEBUG Model.setShowPath: Flag value did not change.");
+            Log.debug("Model.setShowPath: Flag value did not change.");
         }
     }
-    public void setUseRandomWords(boolean use) {
-        System.out.println("DEBUG Model.setUseRandomWords: Called with use = " + use + ". Current this.useRandomWords = " + this.useRandomWords);
-        boolean valueChanged = (this.useRandomWords != use);
-        this.useRandomWords = use;
+    public synchronized void setUseRandomWords(boolean use) {
+        GameSnapshot current = state;
+        if (Log.DEBUG) Log.debug("Model.setUseRandomWords: Called with use = " + use + ". Current useRandomWords = " + current.useRandomWords);
+        boolean valueChanged = (current.useRandomWords != use);
+        state = current.withSettings(current.showErrorMessage, current.showPath, use);
+        if (valueChanged) {
+            events.publish(ModelEvent.flagChanged(ModelEvent.Type.RANDOM_WORDS_CHANGED, use));
+        }
         if (valueChanged || use) {
-            System.out.println("DEBUG Model.setUseRandomWords: Value changed or use is true. Initializing game.");
+            Log.debug("Model.setUseRandomWords: Value changed or use is true. Initializing game.");
             initializeGame();
         } else {
-            System.out.println("DEBUG Model.setUseRandomWords: Value did not change and use is false. No re-initialization unless forced by other logic.");
+            Log.debug("Model.setUseRandomWords: Value did not change and use is false. No re-initialization unless forced by other logic.");
         }
     }
-    public boolean isShowErrorMessage() { return showErrorMessage; }
-    public boolean isShowPath() { return showPath; }
-    public boolean isUseRandomWords() { return useRandomWords; }
+    public boolean isShowErrorMessage() { return state.showErrorMessage; }
+    public boolean isShowPath() { return state.showPath; }
+    public boolean isUseRandomWords() { return state.useRandomWords; }
+
+    public void setSolverStrategy(LadderSolver.Strategy strategy) {
+        if (strategy == null) throw new NullPointerException("strategy");
+        if (Log.DEBUG) Log.debug("Model.setSolverStrategy: Using " + strategy.getName());
+        solverStrategy = strategy;
+    }
+    public LadderSolver.Strategy getSolverStrategy() { return solverStrategy; }
+
+    // Listeners registered without an executor are called on the thread that changed the Model.
+    public void addListener(ModelListener listener) {
+        events.addListener(listener, ModelEventBus.DIRECT);
+    }
+
+    public void addListener(ModelListener listener, Executor executor) {
+        events.addListener(listener, executor);
+    }
+
+    public void removeListener(ModelListener listener) {
+        events.removeListener(listener);
+    }
+
+    public Lexicon getLexicon() {
+        return lexicon;
+    }
+
+    // Ladders solved on this game's Lexicon version, shared with every other Model using it.
+    public SolutionCache getSolutionCache() {
+        return state.version.solutionCache;
+    }
+
+    // Dictionary words matching a pattern where '?' stands for any letter, e.g. "s?me".
+    public List<String> findMatches(String pattern) {
+        return lexicon.getWordList().matches(pattern);
+    }
+
+    // Adds or removes a word in the shared Lexicon. The current game keeps its dictionary;
+    // the change applies from the next initializeGame, for this and every other Model.
+    public boolean addWord(String word) {
+        return lexicon.addWord(word);
+    }
+
+    public boolean removeWord(String word) {
+        return lexicon.removeWord(word);
+    }
 
     public int getDictionarySize() {
-        return this.dictionary != null ? this.dictionary.size() : 0;
+        PackedDictionary dictionary = state.dictionary;
+        return dictionary != null ? dictionary.size() : 0;
     }
 }
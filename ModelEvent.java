@@ -0,0 +1,90 @@
+// Typed notification published by Model whenever its state changes. Each event carries the
+// state that changed, so listeners never have to parse strings or re-query the Model to find
+// out what happened.
+public class ModelEvent {
+
+    public enum Type {
+        // A new game started; word is the start word, targetWord the target.
+        GAME_RESET,
+        // A new game could not be set up from the dictionary; message explains why.
+        GAME_RESET_ERROR,
+        // word was added to the history.
+        MOVE_ACCEPTED,
+        // word, the last move, was taken back.
+        MOVE_UNDONE,
+        // word, the most recently undone move, was played again.
+        MOVE_REDONE,
+        // word was rejected; the Model's last guess feedback describes it.
+        MOVE_REJECTED,
+        // The game is in a state where the move could not be evaluated; message explains why.
+        ERROR,
+        // flag holds the new value of the corresponding setting.
+        SHOW_ERRORS_CHANGED,
+        SHOW_PATH_CHANGED,
+        RANDOM_WORDS_CHANGED
+    }
+
+    public final Type type;
+    public final String word;
+    public final String targetWord;
+    public final boolean flag;
+    public final String message;
+
+    private ModelEvent(Type type, String word, String targetWord, boolean flag, String message) {
+        this.type = type;
+        this.word = word;
+        this.targetWord = targetWord;
+        this.flag = flag;
+        this.message = message;
+    }
+
+    public static ModelEvent gameReset(String startWord, String targetWord) {
+        return new ModelEvent(Type.GAME_RESET, startWord, targetWord, false, null);
+    }
+
+    public static ModelEvent gameResetError(String startWord, String targetWord, String message) {
+        return new ModelEvent(Type.GAME_RESET_ERROR, startWord, targetWord, false, message);
+    }
+
+    public static ModelEvent moveAccepted(String word) {
+        return new ModelEvent(Type.MOVE_ACCEPTED, word, null, false, null);
+    }
+
+    public static ModelEvent moveUndone(String word) {
+        return new ModelEvent(Type.MOVE_UNDONE, word, null, false, null);
+    }
+
+    public static ModelEvent moveRedone(String word) {
+        return new ModelEvent(Type.MOVE_REDONE, word, null, false, null);
+    }
+
+    public static ModelEvent moveRejected(String word) {
+        return new ModelEvent(Type.MOVE_REJECTED, word, null, false, null);
+    }
+
+    public static ModelEvent error(String message) {
+        return new ModelEvent(Type.ERROR, null, null, false, message);
+    }
+
+    public static ModelEvent flagChanged(Type type, boolean value) {
+        return new ModelEvent(type, null, null, value, null);
+    }
+
+    public boolean isReset() {
+        return type == Type.GAME_RESET || type == Type.GAME_RESET_ERROR;
+    }
+
+    public boolean isFlagChange() {
+        return type == Type.SHOW_ERRORS_CHANGED || type == Type.SHOW_PATH_CHANGED || type == Type.RANDOM_WORDS_CHANGED;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(type.name());
+        if (word != null) sb.append(" word=").append(word);
+        if (targetWord != null) sb.append(" target=").append(targetWord);
+        if (isFlagChange()) sb.append(" value=").append(flag);
+        if (message != null) sb.append(" message='").append(message).append('\'');
+        return sb.toString();
+    }
+}
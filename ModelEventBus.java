@@ -0,0 +1,74 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Delivers ModelEvents to listeners, each on its own executor (e.g. SwingUtilities::invokeLater
+// for the View, a direct executor for the CLI). Publishing only queues the event; if a delivery
+// to that listener is already scheduled, the event joins it instead of scheduling another, so a
+// burst of changes reaches a listener as one batch and triggers one refresh.
+// Listener executors should run tasks one at a time (as the EDT does) to keep batches in order.
+public class ModelEventBus {
+
+    // Runs deliveries on the publishing thread.
+    public static final Executor DIRECT = Runnable::run;
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    public void addListener(ModelListener listener, Executor executor) {
+        subscriptions.add(new Subscription(listener, executor));
+    }
+
+    public void removeListener(ModelListener listener) {
+        subscriptions.removeIf(subscription -> subscription.listener == listener);
+    }
+
+    public boolean hasListeners() {
+        return !subscriptions.isEmpty();
+    }
+
+    public void publish(ModelEvent event) {
+        if (Log.DEBUG) Log.debug("ModelEventBus: Publishing " + event + " to " + subscriptions.size() + " listeners.");
+        long started = WeaverMetrics.ENABLED ? System.nanoTime() : 0L;
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+        if (WeaverMetrics.ENABLED) WeaverMetrics.recordEventFanOut(System.nanoTime() - started);
+    }
+
+    private static class Subscription {
+        final ModelListener listener;
+        final Executor executor;
+        final Queue<ModelEvent> pending = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean scheduled = new AtomicBoolean();
+
+        Subscription(ModelListener listener, Executor executor) {
+            this.listener = listener;
+            this.executor = executor;
+        }
+
+        void offer(ModelEvent event) {
+            pending.add(event);
+            if (scheduled.compareAndSet(false, true)) {
+                executor.execute(this::deliver);
+            }
+        }
+
+        private void deliver() {
+            // Clear the flag before draining: anything published from here on either lands in
+            // this batch or schedules a new delivery, so no event is ever stranded.
+            scheduled.set(false);
+            List<ModelEvent> batch = new ArrayList<>();
+            ModelEvent event;
+            while ((event = pending.poll()) != null) {
+                batch.add(event);
+            }
+            if (!batch.isEmpty()) {
+                listener.modelChanged(batch);
+            }
+        }
+    }
+}
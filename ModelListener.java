@@ -0,0 +1,7 @@
+import java.util.List;
+
+// Receives Model changes. Events published while a delivery for this listener is still
+// pending are coalesced, so one call may carry several events, oldest first (never empty).
+public interface ModelListener {
+    void modelChanged(List<ModelEvent> events);
+}
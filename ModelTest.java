@@ -1,11 +1,35 @@
 import org.junit.Before;
 import org.junit.Test;
 import static org.junit.Assert.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 public class ModelTest {
     private Model model;
@@ -200,4 +224,1068 @@ public class ModelTest {
         assertEquals("The last word in history should match the target word", model.getTargetWord(), history.get(history.size() - 1));
         assertTrue("Game should be won after reaching the target word in path display test", model.hasWon());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testNeighborGraph() {
+        List<String> neighbors = model.findNeighbors("sale");
+        assertTrue("'same' should be a neighbour of 'sale'", neighbors.contains("same"));
+        assertTrue("'male' should be a neighbour of 'sale'", neighbors.contains("male"));
+        assertFalse("A word should not be its own neighbour", neighbors.contains("sale"));
+        for (String neighbor : neighbors) {
+            assertTrue("Every neighbour of 'sale' should be a valid move: " + neighbor, model.isValidMove("sale", neighbor));
+        }
+        assertTrue("Unknown words should have no neighbours", model.findNeighbors("xxxx").isEmpty());
+
+        // Moves are checked case-insensitively and need exactly one changed letter.
+        assertTrue("'SALE' -> 'male' should be a valid move", model.isValidMove("SALE", "male"));
+        assertFalse("'sale' -> 'mame' changes two letters", model.isValidMove("sale", "mame"));
+    }
+
+    @Test
+    public void testSolutionPathIsShortestLadder() {
+        model.setShowPath(true);
+        List<String> path = model.getDisplayableSolutionPath();
+        assertEquals("sale -> same is a single step", 2, path.size());
+        assertEquals("sale", path.get(0));
+        assertEquals("same", path.get(1));
+
+        model.setUseRandomWords(true);
+        for (int game = 0; game < 20; game++) {
+            model.initializeGame();
+            String start = model.getStartWord();
+            String target = model.getTargetWord();
+            path = model.getDisplayableSolutionPath();
+            int expected = referenceDistance(start, target);
+            if (expected < 0) {
+                assertTrue("No ladder exists from " + start + " to " + target, path.isEmpty());
+                continue;
+            }
+            assertEquals("Ladder " + path + " should be shortest", expected + 1, path.size());
+            assertEquals(start, path.get(0));
+            assertEquals(target, path.get(path.size() - 1));
+            for (int i = 1; i < path.size(); i++) {
+                assertTrue("Each step should be a valid move: " + path, model.isValidMove(path.get(i - 1), path.get(i)));
+            }
+        }
+    }
+
+    @Test
+    public void testPackedWordValidation() {
+        int sale = PackedWord.encode("sale");
+        int same = PackedWord.encode("SAME");
+        assertEquals("Packing should round-trip", "sale", PackedWord.decode(sale));
+        assertEquals("Packing should ignore case", PackedWord.encode("same"), same);
+        assertTrue("Packed values should sort alphabetically", PackedWord.encode("abba") < PackedWord.encode("abbe"));
+        assertEquals("Non-letters cannot be packed", PackedWord.INVALID, PackedWord.encode("err_"));
+        assertEquals("Only 4-letter words can be packed", PackedWord.INVALID, PackedWord.encode("sales"));
+
+        assertTrue(model.isValidWord(sale));
+        assertFalse(model.isValidWord(PackedWord.encode("xxxx")));
+        assertFalse(model.isValidWord(PackedWord.INVALID));
+        assertTrue(model.isValidMove(sale, same));
+        assertFalse(model.isValidMove(sale, sale));
+        assertFalse(model.isValidMove(sale, PackedWord.encode("mame")));
+        assertEquals("String and packed checks should agree", model.isValidMove("sale", "male"), model.isValidMove(sale, PackedWord.encode("male")));
+    }
+
+    @Test
+    public void testRandomPuzzlesAreSolvable() {
+        assertTrue("sale -> same should be solvable", model.isSolvable("sale", "same"));
+        assertEquals("Words in one ladder share a component", model.componentOf("sale"), model.componentOf("mame"));
+        assertEquals("Unknown words have no component", -1, model.componentOf("xxxx"));
+        assertFalse("Unknown words are never solvable", model.isSolvable("sale", "xxxx"));
+
+        model.setShowPath(true);
+        model.setUseRandomWords(true);
+        for (int game = 0; game < 50; game++) {
+            model.initializeGame();
+            String start = model.getStartWord();
+            String target = model.getTargetWord();
+            assertNotEquals(start, target);
+            assertTrue("Random puzzle " + start + " -> " + target + " should be solvable", model.isSolvable(start, target));
+            assertTrue("Solvability should match the reference search", referenceDistance(start, target) >= 0);
+            assertFalse("A solvable puzzle should have a displayable path", model.getDisplayableSolutionPath().isEmpty());
+        }
+    }
+
+    @Test
+    public void testGeneratePuzzleWithTargetLength() {
+        for (int length = 1; length <= 5; length++) {
+            Model.Puzzle puzzle = model.generatePuzzle(length, 42L + length);
+            assertNotNull("A puzzle of length " + length + " should exist", puzzle);
+            assertEquals(length, puzzle.length);
+            assertEquals("Puzzle " + puzzle + " should have the requested optimal length", length, referenceDistance(puzzle.startWord, puzzle.targetWord));
+        }
+
+        Model.Puzzle first = model.generatePuzzle(3, 6, 7L);
+        Model.Puzzle again = model.generatePuzzle(3, 6, 7L);
+        assertEquals("Same seed should give the same start", first.startWord, again.startWord);
+        assertEquals("Same seed should give the same target", first.targetWord, again.targetWord);
+        assertTrue(first.length >= 3 && first.length <= 6);
+        assertNull("No ladder is a thousand moves long", model.generatePuzzle(1000, 7L));
+
+        model.initializeGame(first.startWord, first.targetWord);
+        assertEquals(first.startWord, model.getStartWord());
+        assertEquals(first.targetWord, model.getTargetWord());
+        assertTrue(model.getGameHistory().isEmpty());
+    }
+
+    @Test
+    public void testEveryLadderLengthUpToTheDiameterYieldsAPuzzle() {
+        WordGraph graph = model.getLexicon().getGraph();
+        GraphAnalytics analytics = new GraphAnalytics(graph);
+        analytics.run();
+        int diameter = analytics.diameter();
+        assertTrue(diameter > 1);
+        for (int length = 1; length <= diameter; length++) {
+            for (long seed = 0; seed < 20; seed++) {
+                Model.Puzzle puzzle = model.generatePuzzle(length, seed);
+                assertNotNull("A puzzle of length " + length + " should exist for seed " + seed, puzzle);
+                int distance = new DistanceLayers(graph, graph.idOf(puzzle.targetWord)).distanceTo(graph.idOf(puzzle.startWord));
+                assertEquals("Puzzle " + puzzle + " should have the requested optimal length", length, distance);
+            }
+        }
+        assertNull("No ladder is longer than the diameter", model.generatePuzzle(diameter + 1, 1L));
+    }
+
+    @Test
+    public void testFourCharacterLinesThatAreNotLettersAreSkipped() throws IOException {
+        Path dir = Files.createTempDirectory("weaver-dictionary");
+        Path words = dir.resolve("words.txt");
+        try {
+            Files.write(words, Arrays.asList("sale", "same", "Male", "a-ok", "b12c", "ab c", "sales"));
+            Lexicon lexicon = Lexicon.load(words.toString());
+            assertEquals(3, lexicon.size());
+            Model game = new Model(lexicon);
+            assertTrue(game.isValidWord("male"));
+            assertFalse(game.isValidWord("a-ok"));
+            assertFalse(game.isValidWord("b12c"));
+            assertFalse(game.isValidWord("ab c"));
+        } finally {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+                for (Path file : files) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    public void testDictionarySnapshotIsReusedAndRegenerated() throws IOException {
+        File snapshot = DictionarySnapshot.snapshotFileFor(DICTIONARY_FILE);
+        assertTrue("Loading the dictionary should leave a binary snapshot behind", snapshot.isFile());
+
+        WordGraph mapped = DictionarySnapshot.read(DICTIONARY_FILE);
+        assertNotNull("An up-to-date snapshot should be readable", mapped);
+        Model fromSnapshot = new Model(Lexicon.reload(DICTIONARY_FILE));
+        assertEquals(model.getDictionarySize(), fromSnapshot.getDictionarySize());
+        assertEquals(model.findNeighbors("sale"), fromSnapshot.findNeighbors("sale"));
+        assertTrue(fromSnapshot.isValidMove("sale", "same"));
+
+        // A valid header over a damaged body is rejected too: a neighbour id past the last word,
+        // offsets that run backwards, words out of order, and a word listed as its own neighbour.
+        byte[] intact = Files.readAllBytes(snapshot.toPath());
+        ByteBuffer header = ByteBuffer.wrap(intact);
+        int wordCount = header.getInt(24);
+        int offsetsAt = 32 + 4 * wordCount;
+        int entriesAt = offsetsAt + 4 * (wordCount + 1);
+        int firstWithNeighbours = 0;
+        while (header.getInt(offsetsAt + 4 * (firstWithNeighbours + 1)) == 0) firstWithNeighbours++;
+        int[][] damage = {
+                {intact.length - 4, wordCount + 5},
+                {offsetsAt + 4 * (firstWithNeighbours + 2), 0},
+                {32, header.getInt(36)},
+                {entriesAt, firstWithNeighbours}};
+        for (int[] change : damage) {
+            ByteBuffer damaged = ByteBuffer.wrap(intact.clone());
+            damaged.putInt(change[0], change[1]);
+            Files.write(snapshot.toPath(), damaged.array());
+            assertNull("Damage at byte " + change[0], DictionarySnapshot.read(DICTIONARY_FILE));
+        }
+        Files.write(snapshot.toPath(), intact);
+        assertNotNull(DictionarySnapshot.read(DICTIONARY_FILE));
+
+        // A corrupt snapshot is ignored and rewritten from the text file.
+        try (PrintWriter writer = new PrintWriter(new FileWriter(snapshot))) {
+            writer.println("not a snapshot");
+        }
+        assertNull("A corrupt snapshot should not be used", DictionarySnapshot.read(DICTIONARY_FILE));
+        Model rebuilt = new Model(Lexicon.reload(DICTIONARY_FILE));
+        assertEquals(model.getDictionarySize(), rebuilt.getDictionarySize());
+        assertNotNull("The snapshot should have been regenerated", DictionarySnapshot.read(DICTIONARY_FILE));
+    }
+
+    @Test
+    public void testModelsShareLexiconButNotGameState() {
+        Model other = new Model();
+        assertSame("Models for the same file should share one Lexicon", model.getLexicon(), other.getLexicon());
+        assertSame(model.getLexicon(), Lexicon.load(DICTIONARY_FILE));
+
+        assertTrue(model.makeMove("same"));
+        assertEquals(1, model.getGameHistory().size());
+        assertTrue("Moves in one game should not leak into another", other.getGameHistory().isEmpty());
+        other.setShowPath(true);
+        assertFalse("Flags are per game", model.isShowPath());
+
+        PackedDictionary shared = model.getLexicon().getDictionary();
+        int size = shared.size();
+        try {
+            shared.add(PackedWord.encode("qqqq"));
+            fail("The shared dictionary should be read-only");
+        } catch (UnsupportedOperationException expected) {
+        }
+        try {
+            shared.remove(PackedWord.encode("sale"));
+            fail("The shared dictionary should be read-only");
+        } catch (UnsupportedOperationException expected) {
+        }
+        assertEquals(size, model.getLexicon().size());
+        assertTrue(model.isValidWord("sale"));
+        assertFalse(model.isValidWord("qqqq"));
+    }
+
+    @Test
+    public void testTypedEventsAreDeliveredAndCoalesced() {
+        List<ModelEvent> direct = new ArrayList<>();
+        model.addListener(events -> direct.addAll(events));
+        model.makeMove("same");
+        model.makeMove("xxxx");
+        assertEquals(2, direct.size());
+        assertEquals(ModelEvent.Type.MOVE_ACCEPTED, direct.get(0).type);
+        assertEquals("same", direct.get(0).word);
+        assertEquals(ModelEvent.Type.MOVE_REJECTED, direct.get(1).type);
+
+        // A queued executor stands in for the EDT: nothing runs until the queue is drained.
+        List<Runnable> queued = new ArrayList<>();
+        List<List<ModelEvent>> batches = new ArrayList<>();
+        model.addListener(events -> batches.add(events), queued::add);
+        model.setUseRandomWords(true);
+        model.setShowPath(true);
+        assertEquals("A burst of changes should schedule a single delivery", 1, queued.size());
+        queued.remove(0).run();
+        assertEquals("The burst should arrive as one batch", 1, batches.size());
+        List<ModelEvent> batch = batches.get(0);
+        assertEquals(ModelEvent.Type.RANDOM_WORDS_CHANGED, batch.get(0).type);
+        assertTrue(batch.get(0).flag);
+        assertEquals(ModelEvent.Type.GAME_RESET, batch.get(1).type);
+        assertEquals(model.getStartWord(), batch.get(1).word);
+        assertEquals(model.getTargetWord(), batch.get(1).targetWord);
+        assertEquals(ModelEvent.Type.SHOW_PATH_CHANGED, batch.get(2).type);
+
+        model.setShowPath(false);
+        assertEquals("A new change after delivery should schedule a new delivery", 1, queued.size());
+    }
+
+    @Test
+    public void testSolutionPathAsyncCompletesAndIsCancelledOnNewGame() throws Exception {
+        CompletableFuture<List<String>> future = model.getSolutionPathAsync();
+        List<String> path = future.get(5, TimeUnit.SECONDS);
+        assertEquals("The async search ignores showPath and solves sale -> same", 2, path.size());
+        assertEquals("same", path.get(1));
+
+        Model.Puzzle puzzle = model.generatePuzzle(6, 3L);
+        model.initializeGame(puzzle.startWord, puzzle.targetWord);
+        CompletableFuture<List<String>> pending = model.getSolutionPathAsync();
+        assertSame("Asking again for the same puzzle should reuse the search", pending, model.getSolutionPathAsync());
+        model.initializeGame();
+        assertTrue("Starting a new game should cancel or have finished the old search", pending.isDone());
+        if (!pending.isCancelled()) {
+            assertEquals(puzzle.length + 1, pending.get().size());
+        }
+        assertEquals("sale", model.getSolutionPathAsync().get(5, TimeUnit.SECONDS).get(0));
+
+        // A renderer holding an older snapshot gets that snapshot's ladder, not the current game's.
+        model.initializeGame(puzzle.startWord, puzzle.targetWord);
+        GameSnapshot shown = model.getSnapshot();
+        model.initializeGame("sale", "same");
+        List<String> shownPath = model.getSolutionPathAsync(shown).get(5, TimeUnit.SECONDS);
+        assertEquals(puzzle.length + 1, shownPath.size());
+        assertEquals(puzzle.startWord, shownPath.get(0));
+        assertEquals(puzzle.targetWord, shownPath.get(shownPath.size() - 1));
+        CompletableFuture<List<String>> displaced = model.getSolutionPathAsync();
+        CompletableFuture<List<String>> next = model.getSolutionPathAsync(shown);
+        assertNotSame(displaced, next);
+        assertTrue("A displaced search is cancelled or already finished, never left running", displaced.isDone());
+        model.initializeGame();
+        assertTrue(next.isDone());
+    }
+
+    @Test
+    public void testSolutionCacheHitsEvictsAndIsInvalidatedOnReload() {
+        Model.Puzzle puzzle = model.generatePuzzle(5, 11L);
+        model.initializeGame(puzzle.startWord, puzzle.targetWord);
+        model.setShowPath(true);
+        SolutionCache cache = model.getSolutionCache();
+        long hits = cache.getHits();
+        List<String> first = model.getDisplayableSolutionPath();
+        Model other = new Model(model.getLexicon());
+        other.initializeGame(puzzle.startWord, puzzle.targetWord);
+        other.setShowPath(true);
+        List<String> second = other.getDisplayableSolutionPath();
+        assertEquals(first, second);
+        assertTrue("A second model on the same Lexicon should hit the cache", cache.getHits() > hits);
+        try {
+            first.add("oops");
+            fail("Cached ladders must be immutable");
+        } catch (UnsupportedOperationException expected) {
+        }
+
+        SolutionCache small = new SolutionCache(2);
+        int a = PackedWord.encode("cold"), b = PackedWord.encode("warm"), c = PackedWord.encode("sale");
+        small.put(a, b, Arrays.asList("cold", "warm"));
+        small.put(b, c, Arrays.asList("warm", "sale"));
+        assertNotNull(small.get(a, b));
+        small.put(c, a, Arrays.asList("sale", "cold"));
+        assertEquals(2, small.size());
+        assertEquals(1, small.getEvictions());
+        assertNull("The least recently used entry should be evicted", small.get(b, c));
+        assertNotNull(small.get(a, b));
+        assertNull("The key is ordered", small.get(b, a));
+
+        // Random gets and puts over a small key space, checked against a LinkedHashMap LRU.
+        SolutionCache primitive = new SolutionCache(37);
+        Map<Long, List<String>> reference = new LinkedHashMap<Long, List<String>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, List<String>> eldest) {
+                return size() > 37;
+            }
+        };
+        Random random = new Random(3);
+        for (int i = 0; i < 50_000; i++) {
+            int start = random.nextInt(12);
+            int target = random.nextInt(12);
+            long key = ((long) start << 32) | target;
+            if (random.nextInt(3) == 0) {
+                List<String> path = Arrays.asList("w" + i);
+                primitive.put(start, target, path);
+                reference.put(key, path);
+            } else {
+                assertEquals("Lookup " + i, reference.get(key), primitive.get(start, target));
+            }
+            assertEquals(reference.size(), primitive.size());
+        }
+
+        assertTrue(cache.size() > 0);
+        Lexicon.reload("dictionary.txt");
+        assertEquals("Reloading the dictionary should drop ladders cached on the old one", 0, cache.size());
+    }
+
+    @Test
+    public void testDistanceToTargetAndHintsFollowAShortestLadder() {
+        Model.Puzzle puzzle = model.generatePuzzle(6, 21L);
+        model.initializeGame(puzzle.startWord, puzzle.targetWord);
+        assertEquals(puzzle.length, model.distanceToTarget(puzzle.startWord));
+        assertEquals(0, model.distanceToTarget(puzzle.targetWord));
+        assertEquals(-1, model.distanceToTarget("zzzz"));
+        assertEquals(referenceDistance("cold", puzzle.targetWord), model.distanceToTarget("cold"));
+
+        int expected = puzzle.length;
+        while (!model.hasWon()) {
+            assertEquals(expected, model.getMovesRemaining());
+            String hint = model.suggestNextMove(model.getCurrentWord());
+            assertNotNull(hint);
+            assertTrue(model.makeMove(hint));
+            expected--;
+        }
+        assertEquals("Following the hints should win in the optimal number of moves", puzzle.length, model.getGameHistory().size());
+        assertNull(model.suggestNextMove(puzzle.targetWord));
+    }
+
+    @Test
+    public void testShortestLaddersAreCountedAndStreamed() {
+        Model.Puzzle puzzle = model.generatePuzzle(5, 7L);
+        model.initializeGame(puzzle.startWord, puzzle.targetWord);
+        ShortestLadders ladders = model.getShortestLadders();
+        assertEquals(puzzle.length, ladders.length());
+
+        Set<List<String>> seen = new HashSet<>();
+        for (List<String> ladder : ladders) {
+            assertTrue("Each streamed ladder should be shortest: " + ladder, ladders.isShortestLadder(ladder));
+            assertTrue("Ladders should not repeat: " + ladder, seen.add(ladder));
+        }
+        assertEquals(ladders.count(), seen.size());
+        assertTrue(seen.contains(model.getSolutionPathAsync().join()));
+
+        for (String word : seen.iterator().next().subList(1, puzzle.length + 1)) {
+            assertTrue(model.makeMove(word));
+        }
+        assertTrue(model.isOptimalSolution());
+
+        assertEquals("sale -> same has exactly one ladder", 1, model.getShortestLadders("sale", "same").count());
+        assertEquals(0, model.getShortestLadders("sale", "sale").length());
+        assertFalse(ladders.isShortestLadder(Arrays.asList(puzzle.startWord, puzzle.targetWord)));
+    }
+
+    @Test
+    public void testScoreTracksDetoursAndEfficiency() {
+        // The first seeded puzzle whose start has a neighbour farther from the target.
+        Model.Puzzle puzzle = null;
+        String detour = null;
+        for (long seed = 5L; detour == null && seed < 100L; seed++) {
+            puzzle = model.generatePuzzle(4, seed);
+            model.initializeGame(puzzle.startWord, puzzle.targetWord);
+            for (String neighbor : model.findNeighbors(puzzle.startWord)) {
+                if (model.distanceToTarget(neighbor) == puzzle.length + 1) {
+                    detour = neighbor;
+                    break;
+                }
+            }
+        }
+        assertNotNull("Some test puzzle should allow a move away from the target", detour);
+        Model.Score score = model.getScore();
+        assertEquals(puzzle.length, score.optimalMoves);
+        assertEquals(0, score.movesMade);
+        assertEquals(1.0, score.efficiency(), 0.0);
+        assertTrue(model.makeMove(detour));
+        assertFalse("A rejected guess should not change the score", model.makeMove("zzzz"));
+        while (!model.hasWon()) {
+            assertTrue(model.makeMove(model.suggestNextMove(model.getCurrentWord())));
+        }
+
+        score = model.getScore();
+        assertTrue(score.won);
+        assertEquals(puzzle.length + 2, score.movesMade);
+        assertEquals(1, score.detours);
+        assertEquals(0, score.movesRemaining);
+        assertEquals(puzzle.length / (double) (puzzle.length + 2), score.efficiency(), 1e-9);
+
+        model.initializeGame(puzzle.startWord, puzzle.targetWord);
+        assertEquals("A new game should reset the score", 0, model.getScore().detours);
+    }
+
+    @Test
+    public void testEfficiencyIsNetProgressPerMove() {
+        // sale -> same is one move; going via male and mame takes three, the first a detour.
+        model.initializeGame("sale", "same");
+        assertTrue(model.makeMove("male"));
+        Model.Score score = model.getScore();
+        assertEquals(1, score.detours);
+        assertEquals(2, score.movesRemaining);
+        assertEquals("Farther from the target than at the start", 0.0, score.efficiency(), 0.0);
+        assertTrue(model.makeMove("mame"));
+        assertEquals("Back where the player started, after two moves", 0.0, model.getScore().efficiency(), 0.0);
+        assertTrue(model.makeMove("same"));
+        score = model.getScore();
+        assertTrue(score.won);
+        assertEquals(1, score.optimalMoves);
+        assertEquals(3, score.movesMade);
+        assertEquals("One move of progress in three moves", 1.0 / 3, score.efficiency(), 1e-9);
+        assertEquals("3 moves (optimal 1, 1 detours, efficiency 33%)", score.toString());
+    }
+
+    @Test
+    public void testGraphAnalyticsMatchesSingleSourceSearches() {
+        WordGraph graph = model.getLexicon().getGraph();
+        GraphAnalytics analytics = new GraphAnalytics(graph);
+        analytics.run();
+
+        int diameter = 0;
+        long connectedPairs = 0;
+        for (int id = 0; id < graph.size(); id++) {
+            DistanceLayers layers = new DistanceLayers(graph, id);
+            assertEquals(layers.maxDistance(), analytics.eccentricity(id));
+            diameter = Math.max(diameter, layers.maxDistance());
+            connectedPairs += layers.reachableCount() - 1;
+        }
+        assertEquals(diameter, analytics.diameter());
+        long counted = 0;
+        for (int d = 1; d <= diameter; d++) {
+            counted += analytics.pairsAtDistance(d);
+        }
+        assertEquals("Every connected pair should be counted once", connectedPairs / 2, counted);
+        assertFalse(analytics.hardestPuzzles().isEmpty());
+        for (Model.Puzzle puzzle : analytics.hardestPuzzles()) {
+            assertEquals(diameter, referenceDistance(puzzle.startWord, puzzle.targetWord));
+        }
+    }
+
+    @Test
+    public void testMetricsRecordMovesSolvesAndAreExposedOverJmx() throws Exception {
+        WeaverMetrics metrics = WeaverMetrics.get();
+        long accepted = metrics.getMovesAccepted();
+        long rejected = metrics.getMovesRejected();
+        long solves = metrics.getSolves();
+        assertTrue(model.makeMove("male"));
+        assertFalse(model.makeMove("zzzz"));
+        model.setShowPath(true);
+        model.initializeGame("cold", "warm");
+        model.getDisplayableSolutionPath();
+
+        assertEquals(accepted + 1, metrics.getMovesAccepted());
+        assertEquals(rejected + 1, metrics.getMovesRejected());
+        assertTrue(metrics.getMoveValidationMaxNanos() > 0);
+        assertTrue(metrics.getSolves() > solves || metrics.getSolutionCacheHits() > 0);
+        String file = new File(DICTIONARY_FILE).getCanonicalPath();
+        assertEquals(Integer.valueOf(model.getDictionarySize()), metrics.getDictionarySizes().get(file));
+        assertTrue(metrics.getDictionarySize() >= model.getDictionarySize());
+
+        long validations = metrics.getWordValidations();
+        assertTrue(model.isValidWord("sale"));
+        assertTrue(model.isValidWord(PackedWord.encode("same")));
+        assertEquals("Both overloads should be counted once", validations + 2, metrics.getWordValidations());
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        Object viaJmx = server.getAttribute(new ObjectName(WeaverMetrics.OBJECT_NAME), "MovesAccepted");
+        assertEquals(metrics.getMovesAccepted(), ((Long) viaJmx).longValue());
+
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(50.5, histogram.getMean(), 1e-9);
+        assertEquals(100, histogram.getMax());
+        assertEquals(63, histogram.getPercentile(50));
+        assertEquals(100, histogram.getPercentile(99));
+    }
+
+    @Test
+    public void testWordsCanBeAddedAndRemovedAtRuntime() {
+        WordGraph base = model.getLexicon().getGraph();
+        WordGraph graph = base.withoutWord("male");
+        assertEquals(base.wordCount() - 1, graph.wordCount());
+        assertEquals(-1, graph.idOf("male"));
+        assertTrue("The old version must be unchanged", base.idOf("male") >= 0);
+        assertFalse(graph.areAdjacent(graph.idOf("sale"), base.idOf("male")));
+
+        // Cut a word off by removing all of its neighbours, then reconnect it.
+        String leaf = null;
+        for (int id = 0; id < base.size() && leaf == null; id++) {
+            if (base.degree(id) == 1 && base.componentSize(base.componentOf(id)) > 10) leaf = base.wordAt(id);
+        }
+        assertNotNull(leaf);
+        String bridge = base.wordAt(base.neighbors(base.idOf(leaf))[0]);
+        graph = base.withoutWord(bridge);
+        assertEquals(1, graph.componentSize(graph.componentOf(graph.idOf(leaf))));
+        assertFalse(graph.isConnected(graph.idOf(leaf), graph.idOf("sale")));
+        graph = graph.withWord(bridge);
+        assertTrue(graph.isConnected(graph.idOf(leaf), graph.idOf("sale")));
+        assertEquals(base.componentSize(base.componentOf(base.idOf("sale"))), graph.componentSize(graph.componentOf(graph.idOf("sale"))));
+
+        Lexicon lexicon = Lexicon.reload("dictionary.txt");
+        Model game = new Model(lexicon);
+        assertTrue(game.removeWord("male"));
+        assertFalse(game.removeWord("male"));
+        assertTrue("A game in progress keeps its dictionary", game.makeMove("male"));
+        game.initializeGame();
+        assertFalse("The next game sees the change", game.makeMove("male"));
+        assertTrue(game.makeMove("sane"));
+        assertTrue(game.makeMove("same"));
+        assertTrue(game.addWord("male"));
+        assertTrue(new Model(lexicon).makeMove("male"));
+        assertFalse(game.addWord("xx"));
+        // Leave an unmodified Lexicon registered for the other tests.
+        Lexicon.reload("dictionary.txt");
+    }
+
+    @Test
+    public void testIncrementalEditsMatchAGraphBuiltFromScratch() {
+        WordGraph graph = model.getLexicon().getGraph();
+        Random random = new Random(7);
+        List<String> removed = new ArrayList<>();
+        for (int edit = 0; edit < 300; edit++) {
+            int choice = random.nextInt(3);
+            if (choice == 0 && !removed.isEmpty()) {
+                graph = graph.withWord(removed.remove(random.nextInt(removed.size())));
+            } else if (choice == 1) {
+                char[] letters = new char[4];
+                for (int i = 0; i < 4; i++) letters[i] = (char) ('a' + random.nextInt(26));
+                graph = graph.withWord(new String(letters));
+            } else {
+                String word = graph.wordAt(graph.randomWord(random));
+                graph = graph.withoutWord(word);
+                removed.add(word);
+            }
+            int id = graph.randomWord(random);
+            assertTrue("Random words are never removed ones", graph.isLive(id));
+            int pairable = graph.randomPairableWord(random);
+            assertTrue(graph.isLive(pairable) && graph.componentSize(graph.componentOf(pairable)) > 1);
+        }
+
+        WordGraph fresh = new WordGraph(new PackedDictionary(graph.getDictionary()));
+        assertEquals(fresh.wordCount(), graph.wordCount());
+        assertEquals(fresh.pairableWordCount(), graph.pairableWordCount());
+        int live = 0;
+        for (int id = 0; id < graph.size(); id++) {
+            if (!graph.isLive(id)) {
+                assertEquals(-1, graph.idOf(graph.wordAt(id)));
+                continue;
+            }
+            live++;
+            String word = graph.wordAt(id);
+            assertEquals(id, graph.idOf(word));
+            int freshId = fresh.idOf(word);
+            assertTrue(freshId >= 0);
+            Set<String> expected = new HashSet<>();
+            for (int neighbor : fresh.neighbors(freshId)) expected.add(fresh.wordAt(neighbor));
+            Set<String> actual = new HashSet<>();
+            for (int neighbor : graph.neighbors(id)) actual.add(graph.wordAt(neighbor));
+            assertEquals(word, expected, actual);
+            assertEquals(word, fresh.componentSize(fresh.componentOf(freshId)), graph.componentSize(graph.componentOf(id)));
+        }
+        assertEquals(graph.wordCount(), live);
+        int members = 0;
+        for (int component = 0; component < graph.componentCount(); component++) {
+            for (int i = 0; i < graph.componentSize(component); i++) {
+                assertEquals(component, graph.componentOf(graph.componentMember(component, i)));
+                members++;
+            }
+        }
+        assertEquals(live, members);
+    }
+
+    @Test
+    public void testEditsKeepLayersAndLaddersOfUntouchedComponents() throws Exception {
+        Lexicon lexicon = Lexicon.reload("dictionary.txt");
+        Model game = new Model(lexicon);
+        Lexicon.Version before = lexicon.getVersion();
+        Model.Puzzle puzzle = game.generatePuzzle(4, 4, 3);
+        game.initializeGame(puzzle.startWord, puzzle.targetWord);
+        assertEquals(5, game.getSolutionPathAsync().get(5, TimeUnit.SECONDS).size());
+        int start = before.graph.idOf(game.getStartWord());
+        DistanceLayers layers = before.puzzleGenerator.layersFrom(start);
+        int cached = before.solutionCache.size();
+        assertTrue(cached > 0);
+
+        // A word with no neighbours forms a component of its own and leaves the rest alone.
+        assertTrue(game.addWord("qxqx"));
+        Lexicon.Version after = lexicon.getVersion();
+        assertTrue(after.graph.hasSameComponent(before.graph, start));
+        assertSame(layers, after.puzzleGenerator.layersFrom(start));
+        assertEquals(cached, after.solutionCache.size());
+        assertNotNull(after.solutionCache.get(PackedWord.encode(game.getStartWord()), PackedWord.encode(game.getTargetWord())));
+        assertNotNull(after.puzzleGenerator.generate(4, 4, 3));
+
+        // Removing a word from the puzzle's component invalidates what was derived from it.
+        String neighbor = after.graph.wordAt(after.graph.neighbors(start)[0]);
+        assertTrue(game.removeWord(neighbor));
+        Lexicon.Version removed = lexicon.getVersion();
+        assertFalse(removed.graph.hasSameComponent(after.graph, start));
+        assertNotSame(layers, removed.puzzleGenerator.layersFrom(start));
+        assertEquals(0, removed.solutionCache.size());
+        // Leave an unmodified Lexicon registered for the other tests.
+        Lexicon.reload("dictionary.txt");
+    }
+
+    @Test
+    public void testDictionaryBackendsAgreeOnMembershipPrefixesAndPatterns() {
+        WordDictionary packed = model.getLexicon().getDictionary();
+        List<String> lines = new ArrayList<>();
+        for (int id = 0; id < model.getLexicon().getGraph().size(); id++) {
+            lines.add(model.getLexicon().getGraph().wordAt(id));
+        }
+        lines.add("weave");
+        lines.add("weaver");
+        lines.add("We");
+        lines.add("not-a-word");
+        DawgDictionary dawg = DawgDictionary.of(lines);
+
+        assertEquals(packed.size() + 3, dawg.size());
+        for (String word : lines.subList(0, packed.size())) {
+            assertTrue(word, dawg.contains(word));
+        }
+        assertTrue(dawg.contains("WEAVER"));
+        assertTrue(dawg.contains("we"));
+        assertFalse(dawg.contains("weav"));
+        assertFalse(dawg.contains("not-a-word"));
+        assertTrue(dawg.hasPrefix("weav"));
+        assertFalse(packed.contains("weaver"));
+
+        for (String prefix : new String[]{"", "s", "sa", "sal", "sale", "qz", "zzzz"}) {
+            assertEquals(prefix, packed.hasPrefix(prefix), dawg.hasPrefix(prefix));
+        }
+        for (String pattern : new String[]{"s?me", "?a?e", "....", "q???", "zz??"}) {
+            assertEquals(pattern, packed.matches(pattern), dawg.matches(pattern));
+        }
+        assertEquals(Arrays.asList("weave"), dawg.matches("wea?e"));
+        assertEquals(model.findMatches("sa?e"), packed.matches("sa?e"));
+        assertTrue(model.findMatches("sa?e").contains("same"));
+        assertTrue("Shared prefixes and suffixes should keep the DAWG under 8 bytes per word", dawg.edgeCount() * 4 < dawg.size() * 8);
+
+        // The dawg backend answers 4-letter words from the version's bitset, so runtime removals
+        // apply, and every other length from a DAWG of the remaining lines.
+        List<String> otherLines = new ArrayList<>();
+        for (String line : lines) {
+            if (PackedWord.encode(line) == PackedWord.INVALID) otherLines.add(line);
+        }
+        WordGraph edited = model.getLexicon().getGraph().withoutWord("male");
+        WordDictionary combined = new CombinedDictionary(edited.getDictionary(), DawgDictionary.of(otherLines));
+        assertEquals(dawg.size() - 1, combined.size());
+        assertTrue(combined.contains("sale"));
+        assertFalse(combined.contains("male"));
+        assertTrue(combined.contains("WEAVER"));
+        assertTrue(combined.contains("we"));
+        assertFalse(combined.contains("weav"));
+        for (String prefix : new String[]{"", "s", "sal", "sale", "weav", "weaver", "qz", "mal"}) {
+            assertEquals(prefix, dawg.hasPrefix(prefix), combined.hasPrefix(prefix));
+        }
+        assertEquals(dawg.matches("wea?e"), combined.matches("wea?e"));
+        List<String> withoutMale = new ArrayList<>(dawg.matches("?ale"));
+        withoutMale.remove("male");
+        assertEquals(withoutMale, combined.matches("?ale"));
+        assertTrue(model.isValidWord("sale"));
+        assertFalse(model.isValidWord((String) null));
+    }
+
+    @Test
+    public void testJournalRecoversGamesAfterRestartSnapshotAndTornTail() throws Exception {
+        Path dir = Files.createTempDirectory("weaver-journal");
+        Path base = dir.resolve("games");
+        try {
+            Model.Puzzle puzzle = model.generatePuzzle(4, 42L);
+            assertNotNull(puzzle);
+            List<String> ladder = model.getShortestLadders(puzzle.startWord, puzzle.targetWord).iterator().next();
+
+            try (GameJournal journal = GameJournal.open(base)) {
+                assertTrue(journal.getRecoveredGames().isEmpty());
+                model.initializeGame(puzzle.startWord, puzzle.targetWord);
+                model.setShowPath(true);
+                journal.attach("a", model);
+                assertTrue(model.makeMove(ladder.get(1)));
+                assertTrue(model.makeMove(ladder.get(2)));
+                journal.attach("b", new Model(model.getLexicon()));
+                journal.recordEnd("b");
+            }
+
+            // Simulate a crash in the middle of writing a record.
+            Files.write(base.resolveSibling("games.0"), new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+            long tornSize = Files.size(base.resolveSibling("games.0"));
+            Model restored = new Model(model.getLexicon());
+            try (GameJournal journal = GameJournal.open(base)) {
+                assertEquals(Set.of("a"), journal.getRecoveredGames().keySet());
+                GameJournal.GameState state = journal.getRecoveredGames().get("a");
+                assertEquals(ladder.subList(1, 3), state.history);
+                assertTrue(state.showPath);
+                assertTrue(state.restoreInto(restored));
+                assertEquals(puzzle.targetWord, restored.getTargetWord());
+                assertEquals(ladder.subList(1, 3), restored.getGameHistory());
+                assertTrue(restored.isShowPath());
+                assertEquals(tornSize - 7, Files.size(base.resolveSibling("games.0")));
+
+                journal.listen("a", restored);
+                journal.snapshot();
+                journal.flush();
+                assertTrue(Files.exists(base.resolveSibling("games.snapshot")));
+                assertFalse(Files.exists(base.resolveSibling("games.0")));
+                assertTrue(restored.makeMove(ladder.get(3)));
+                assertTrue(restored.undo());
+                assertTrue(restored.undo());
+                assertTrue(restored.redo());
+            }
+            try (GameJournal journal = GameJournal.open(base)) {
+                assertEquals(ladder.subList(1, 3), journal.getRecoveredGames().get("a").history);
+                journal.recordEnd("a");
+            }
+
+            // Sessions come back under their old ids.
+            String id;
+            try (GameJournal journal = GameJournal.open(base);
+                 GameSessionManager manager = new GameSessionManager(model.getLexicon(), 2, 1, TimeUnit.MINUTES, journal)) {
+                id = manager.createSession(puzzle);
+                assertTrue(manager.submitMove(id, ladder.get(1)).get(5, TimeUnit.SECONDS).accepted);
+            }
+            try (GameJournal journal = GameJournal.open(base);
+                 GameSessionManager manager = new GameSessionManager(model.getLexicon(), 2, 1, TimeUnit.MINUTES, journal)) {
+                assertEquals(1, manager.recoverSessions());
+                assertEquals(ladder.subList(1, 2), manager.getHistory(id).get(5, TimeUnit.SECONDS));
+                manager.removeSession(id);
+            }
+
+            // Many games, several snapshots; recovery replays one snapshot plus a short tail.
+            int games = 5000;
+            try (GameJournal journal = GameJournal.open(base, false, 4096)) {
+                assertTrue(journal.getRecoveredGames().isEmpty());
+                for (int i = 0; i < games; i++) {
+                    String session = "s" + i;
+                    journal.recordStart(session, puzzle.startWord, puzzle.targetWord);
+                    for (int m = 1; m <= 1 + i % 3; m++) {
+                        journal.recordMove(session, ladder.get(m));
+                    }
+                }
+            }
+            long started = System.nanoTime();
+            try (GameJournal journal = GameJournal.open(base)) {
+                long millis = (System.nanoTime() - started) / 1_000_000;
+                assertEquals(games, journal.getRecoveredGames().size());
+                assertEquals(ladder.subList(1, 4), journal.getRecoveredGames().get("s4997").history);
+                assertTrue("Recovering " + games + " games took " + millis + " ms", millis < 5000);
+            }
+        } finally {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+                for (Path file : files) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    public void testJournalReportsAFailedWriteToFlushAndStops() throws Exception {
+        Path dir = Files.createTempDirectory("weaver-journal");
+        Path base = dir.resolve("games");
+        try {
+            try (GameJournal journal = GameJournal.open(base)) {
+                journal.recordStart("a", "sale", "same");
+                journal.flush();
+                // Closing the writer's channel makes its next write fail like a full or lost disk.
+                Field channel = GameJournal.class.getDeclaredField("channel");
+                channel.setAccessible(true);
+                ((FileChannel) channel.get(journal)).close();
+                journal.recordMove("a", "sane");
+                try {
+                    journal.flush();
+                    fail("A record that was not written must not look flushed");
+                } catch (UncheckedIOException expected) {
+                    assertNotNull(expected.getCause());
+                }
+                journal.recordMove("a", "same");
+                try {
+                    journal.flush();
+                    fail("The journal stays stopped after a failed write");
+                } catch (UncheckedIOException expected) {
+                    // Records after the failure are dropped and the earlier one is still pending.
+                }
+            }
+            try (GameJournal journal = GameJournal.open(base)) {
+                assertTrue(journal.getRecoveredGames().get("a").history.isEmpty());
+            }
+        } finally {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+                for (Path file : files) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    public void testPackedFeedbackMatchesCheckGuessWithoutAllocating() {
+        model.initializeGame("sale", "same");
+        WordGraph graph = model.getLexicon().getGraph();
+        for (int id = 0; id < graph.size(); id += 7) {
+            String word = graph.wordAt(id);
+            int feedback = model.scoreGuess(word);
+            Model.LetterFeedback[] letters = model.checkGuess(word.toUpperCase());
+            assertEquals(word, PackedWord.decode(PackedFeedback.word(feedback)));
+            for (int i = 0; i < 4; i++) {
+                assertEquals(word, letters[i].state, PackedFeedback.stateAt(feedback, i));
+                assertEquals(word.charAt(i), (char) ('a' + PackedFeedback.letterAt(feedback, i)));
+            }
+        }
+        int feedback = model.scoreGuess("sane");
+        assertEquals(0b1011, PackedFeedback.correctMask(feedback));
+        assertEquals(3, PackedFeedback.correctCount(feedback));
+        assertEquals("s+a+n-e+", PackedFeedback.toString(feedback));
+        assertTrue(PackedFeedback.isSolved(model.scoreGuess("SAME")));
+        assertEquals(PackedFeedback.INVALID, model.scoreGuess("sa1e"));
+        assertEquals(Model.FeedbackState.CORRECT_POSITION, model.checkGuess("sa1e")[0].state);
+
+        // Letters share their feedback instances; the packed API allocates nothing at all.
+        assertSame(model.checkGuess("sane")[0], model.checkGuess("sofa")[0]);
+        assertSame(model.checkGuess("SANE")[3], Model.LetterFeedback.of('E', Model.FeedbackState.CORRECT_POSITION));
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        int packedGuess = PackedWord.encode("sane");
+        int checksum = 0;
+        for (int i = 0; i < 200_000; i++) {
+            checksum += model.scoreGuess(packedGuess) + model.scoreGuess("sane");
+        }
+        long before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        for (int i = 0; i < 100_000; i++) {
+            checksum += model.scoreGuess(packedGuess) + model.scoreGuess("sane");
+        }
+        long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+        assertTrue(checksum != 0);
+        assertTrue("Scoring 200000 guesses allocated " + allocated + " bytes", allocated < 64 * 1024);
+    }
+
+    @Test
+    public void testUndoAndRedoAreConstantTimeSnapshotsWithOneEventEach() {
+        Model.Puzzle puzzle = model.generatePuzzle(4, 7L);
+        assertNotNull(puzzle);
+        List<String> ladder = model.getShortestLadders(puzzle.startWord, puzzle.targetWord).iterator().next();
+        model.initializeGame(puzzle.startWord, puzzle.targetWord);
+        List<ModelEvent> events = new ArrayList<>();
+        model.addListener(events::addAll);
+
+        assertFalse(model.canUndo());
+        assertFalse(model.undo());
+        assertTrue(model.makeMove(ladder.get(1)));
+        assertTrue(model.makeMove(ladder.get(2)));
+        assertTrue(model.makeMove(ladder.get(3)));
+        List<String> threeMoves = model.getGameHistory();
+        assertSame("Reading the history should not copy it", threeMoves, model.getGameHistory());
+
+        events.clear();
+        assertTrue(model.undo());
+        assertEquals(1, events.size());
+        assertEquals(ModelEvent.Type.MOVE_UNDONE, events.get(0).type);
+        assertEquals(ladder.get(3), events.get(0).word);
+        assertTrue(model.undo());
+        assertEquals(ladder.subList(1, 2), model.getGameHistory());
+        assertEquals(ladder.subList(1, 4), threeMoves);
+        assertEquals(puzzle.length - 1, model.getMovesRemaining());
+        assertEquals(ladder.get(1), model.getCurrentWord());
+
+        events.clear();
+        assertTrue(model.redo());
+        assertEquals(1, events.size());
+        assertEquals(ModelEvent.Type.MOVE_REDONE, events.get(0).type);
+        assertEquals(ladder.subList(1, 3), model.getGameHistory());
+        assertTrue(model.canRedo());
+
+        // A new move discards what is left to redo, without touching earlier snapshots.
+        assertTrue(model.undo());
+        String detour = null;
+        for (String neighbor : model.findNeighbors(ladder.get(1))) {
+            if (!neighbor.equals(ladder.get(2))) detour = neighbor;
+        }
+        assertNotNull(detour);
+        assertTrue(model.makeMove(detour));
+        assertFalse(model.canRedo());
+        assertFalse(model.redo());
+        assertEquals(Arrays.asList(ladder.get(1), detour), model.getGameHistory());
+        assertEquals(ladder.subList(1, 4), threeMoves);
+
+        // Undo all the way back and replay to the end.
+        while (model.undo()) {
+        }
+        assertTrue(model.getGameHistory().isEmpty());
+        assertEquals(puzzle.length, model.getMovesRemaining());
+        assertTrue(model.redo());
+        assertTrue(model.redo());
+        assertFalse(model.redo());
+        assertEquals(Arrays.asList(ladder.get(1), detour), model.getGameHistory());
+
+        try {
+            model.getGameHistory().add("oops");
+            fail("The history snapshot should be read-only");
+        } catch (UnsupportedOperationException expected) {
+        }
+        model.initializeGame(puzzle.startWord, puzzle.targetWord);
+        assertFalse(model.canUndo());
+        assertFalse(model.canRedo());
+    }
+
+    @Test
+    public void testReadersSeeConsistentSnapshotsWhileAnotherThreadPlays() throws Exception {
+        Model.Puzzle puzzle = model.generatePuzzle(5, 11L);
+        assertNotNull(puzzle);
+        List<String> ladder = model.getShortestLadders(puzzle.startWord, puzzle.targetWord).iterator().next();
+        model.initializeGame(puzzle.startWord, puzzle.targetWord);
+        GameSnapshot before = model.getSnapshot();
+
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 3; r++) {
+            Thread reader = new Thread(() -> {
+                while (!done.get() && failure.get() == null) {
+                    GameSnapshot game = model.getSnapshot();
+                    // Along the ladder, every position determines the rest of the snapshot.
+                    int moves = game.history.size();
+                    if (!game.history.equals(ladder.subList(1, moves + 1))
+                            || game.currentDistance != puzzle.length - moves
+                            || !game.currentWord().equals(ladder.get(moves))
+                            || game.hasWon() != (moves == puzzle.length)) {
+                        failure.set("Inconsistent snapshot after " + moves + " moves: " + game.history + ", distance " + game.currentDistance);
+                    }
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+        for (int round = 0; round < 500; round++) {
+            for (int m = 1; m <= puzzle.length; m++) {
+                assertTrue(model.makeMove(ladder.get(m)));
+            }
+            while (model.undo()) {
+            }
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertNull(failure.get());
+
+        // Snapshots never change once taken.
+        assertTrue(before.history.isEmpty());
+        assertEquals(puzzle.length, before.currentDistance);
+        assertTrue(model.makeMove(ladder.get(1)));
+        GameSnapshot after = model.getSnapshot();
+        assertNotSame(before, after);
+        assertTrue(before.history.isEmpty());
+        assertEquals(ladder.subList(1, 2), after.history);
+        assertEquals(model.getScore().toString(), after.score().toString());
+    }
+
+    @Test
+    public void testSolverStrategiesFindShortestLaddersAndAStarExpandsLess() {
+        WordGraph graph = model.getLexicon().getGraph();
+        LadderSolver.Strategy[] strategies = LadderSolver.Strategy.values();
+        LadderSolver[] solvers = new LadderSolver[strategies.length];
+        long[] expanded = new long[strategies.length];
+        for (int i = 0; i < strategies.length; i++) {
+            solvers[i] = strategies[i].create(graph);
+        }
+
+        Random random = new Random(42);
+        for (int pair = 0; pair < 200; pair++) {
+            int start = random.nextInt(graph.size());
+            int target = random.nextInt(graph.size());
+            int expected = new DistanceLayers(graph, target).distanceTo(start);
+            for (int i = 0; i < solvers.length; i++) {
+                int[] path = solvers[i].solve(start, target);
+                String name = strategies[i].getName() + " " + graph.wordAt(start) + " -> " + graph.wordAt(target);
+                if (expected < 0) {
+                    assertNull(name + " has no ladder", path);
+                    continue;
+                }
+                assertNotNull(name + " should find a ladder", path);
+                assertEquals(name + " should be shortest", expected + 1, path.length);
+                assertEquals(start, path[0]);
+                assertEquals(target, path[path.length - 1]);
+                for (int step = 1; step < path.length; step++) {
+                    assertEquals(name + " should change one letter per step", 1,
+                            PackedWord.differences(graph.packedAt(path[step - 1]), graph.packedAt(path[step])));
+                }
+                assertTrue(solvers[i].getElapsedNanos() >= 0);
+                expanded[i] += solvers[i].getNodesExpanded();
+            }
+        }
+        int bfs = LadderSolver.Strategy.BFS.ordinal();
+        int aStar = LadderSolver.Strategy.A_STAR.ordinal();
+        assertTrue("A* (" + expanded[aStar] + ") should expand fewer words than BFS (" + expanded[bfs] + ")",
+                expanded[aStar] < expanded[bfs]);
+
+        assertEquals(LadderSolver.Strategy.A_STAR, LadderSolver.Strategy.fromName("astar"));
+        assertEquals(LadderSolver.Strategy.BIDIRECTIONAL_BFS, LadderSolver.Strategy.fromName("unknown"));
+        model.setSolverStrategy(LadderSolver.Strategy.A_STAR);
+        assertEquals(LadderSolver.Strategy.A_STAR, model.getSolverStrategy());
+        model.setShowPath(true);
+        model.initializeGame("cold", "warm");
+        List<String> path = model.getDisplayableSolutionPath();
+        assertEquals(referenceDistance("cold", "warm") + 1, path.size());
+    }
+
+    // Plain single-source BFS used as an oracle for the solver.
+    private int referenceDistance(String start, String target) {
+        Map<String, Integer> distance = new HashMap<>();
+        ArrayDeque<String> queue = new ArrayDeque<>();
+        distance.put(start, 0);
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            String current = queue.poll();
+            if (current.equals(target)) return distance.get(current);
+            for (String neighbor : model.findNeighbors(current)) {
+                if (!distance.containsKey(neighbor)) {
+                    distance.put(neighbor, distance.get(current) + 1);
+                    queue.add(neighbor);
+                }
+            }
+        }
+        return -1;
+    }
+}
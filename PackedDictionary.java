@@ -0,0 +1,172 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Dictionary of 4-letter words stored as one bit per possible packed word (128 KB in total).
+// Membership is two shifts, two array loads and a bit test, with no hashing and no allocation.
+// The bits are split into 16 pages of 8 KB; a copy shares its source's pages until it writes
+// one, so deriving a dictionary version with one word added or removed copies a single page.
+// A dictionary is frozen once a WordGraph is built on it; from then on it is shared between
+// threads and versions and add/remove throw, so it can be handed out without copying.
+public class PackedDictionary implements WordDictionary {
+
+    // Bits per page, as a power of two.
+    private static final int PAGE_BITS = 16;
+    private static final int WORDS_PER_PAGE = 1 << (PAGE_BITS - 6);
+
+    private final long[][] pages;
+    // Pages this dictionary may write; the others are shared with the dictionary it was copied from.
+    private final boolean[] owned;
+    private int size;
+    private boolean frozen;
+
+    public PackedDictionary() {
+        pages = new long[PackedWord.SPACE >>> PAGE_BITS][WORDS_PER_PAGE];
+        owned = new boolean[pages.length];
+        Arrays.fill(owned, true);
+    }
+
+    // Mutable copy of another dictionary, used to derive a new dictionary version. Pages are
+    // copied when first written.
+    public PackedDictionary(PackedDictionary other) {
+        pages = other.pages.clone();
+        owned = new boolean[pages.length];
+        size = other.size;
+        // The pages are now shared both ways, so a still mutable source must copy before writing too.
+        if (!other.frozen) Arrays.fill(other.owned, false);
+    }
+
+    // Makes the dictionary read-only; returns it for chaining.
+    public PackedDictionary freeze() {
+        frozen = true;
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) throw new UnsupportedOperationException("Dictionary is read-only; derive a new version instead");
+    }
+
+    // Returns true if the word was not already present.
+    public boolean add(int packed) {
+        checkNotFrozen();
+        if (packed < 0 || packed >= PackedWord.SPACE) return false;
+        if (contains(packed)) return false;
+        writablePage(packed)[(packed >>> 6) & (WORDS_PER_PAGE - 1)] |= 1L << packed;
+        size++;
+        return true;
+    }
+
+    // Returns true if the word was present.
+    public boolean remove(int packed) {
+        checkNotFrozen();
+        if (!contains(packed)) return false;
+        writablePage(packed)[(packed >>> 6) & (WORDS_PER_PAGE - 1)] &= ~(1L << packed);
+        size--;
+        return true;
+    }
+
+    private long[] writablePage(int packed) {
+        int page = packed >>> PAGE_BITS;
+        if (!owned[page]) {
+            pages[page] = pages[page].clone();
+            owned[page] = true;
+        }
+        return pages[page];
+    }
+
+    // The 64 bits holding packed words index * 64 .. index * 64 + 63.
+    private long bitsAt(int index) {
+        return pages[index >>> (PAGE_BITS - 6)][index & (WORDS_PER_PAGE - 1)];
+    }
+
+    public boolean contains(int packed) {
+        if (packed < 0 || packed >= PackedWord.SPACE) return false;
+        return (pages[packed >>> PAGE_BITS][(packed >>> 6) & (WORDS_PER_PAGE - 1)] & (1L << packed)) != 0;
+    }
+
+    @Override
+    public boolean contains(String word) {
+        return contains(PackedWord.encode(word));
+    }
+
+    // Words sharing a k-letter prefix occupy one contiguous range of packed values, because the
+    // first letter sits in the highest bits.
+    @Override
+    public boolean hasPrefix(String prefix) {
+        if (prefix.length() > PackedWord.LENGTH) return false;
+        int packedPrefix = 0;
+        for (int i = 0; i < prefix.length(); i++) {
+            int letter = Character.toLowerCase(prefix.charAt(i)) - 'a';
+            if (letter < 0 || letter >= 26) return false;
+            packedPrefix = (packedPrefix << PackedWord.BITS_PER_LETTER) | letter;
+        }
+        int shift = (PackedWord.LENGTH - prefix.length()) * PackedWord.BITS_PER_LETTER;
+        return anyBetween(packedPrefix << shift, (packedPrefix + 1) << shift);
+    }
+
+    private boolean anyBetween(int from, int to) {
+        for (int packed = from; packed < to; ) {
+            long word = bitsAt(packed >>> 6) >>> (packed & 63);
+            if (word != 0) return packed + Long.numberOfTrailingZeros(word) < to;
+            packed = (packed | 63) + 1;
+        }
+        return false;
+    }
+
+    @Override
+    public List<String> matches(String pattern) {
+        List<String> result = new ArrayList<>();
+        if (pattern.length() == PackedWord.LENGTH) {
+            collectMatches(pattern.toLowerCase(), 0, 0, result);
+        }
+        return result;
+    }
+
+    private void collectMatches(String pattern, int position, int packedPrefix, List<String> result) {
+        if (position == PackedWord.LENGTH) {
+            if (contains(packedPrefix)) result.add(PackedWord.decode(packedPrefix));
+            return;
+        }
+        char c = pattern.charAt(position);
+        int shift = (PackedWord.LENGTH - position) * PackedWord.BITS_PER_LETTER;
+        if (c == '?' || c == '.') {
+            for (int letter = 0; letter < 26; letter++) {
+                int next = (packedPrefix << PackedWord.BITS_PER_LETTER) | letter;
+                // Skip whole subtrees with no words.
+                int rest = shift - PackedWord.BITS_PER_LETTER;
+                if (anyBetween(next << rest, (next + 1) << rest)) {
+                    collectMatches(pattern, position + 1, next, result);
+                }
+            }
+        } else if (c >= 'a' && c <= 'z') {
+            collectMatches(pattern, position + 1, (packedPrefix << PackedWord.BITS_PER_LETTER) | (c - 'a'), result);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // All packed words in ascending (i.e. alphabetical) order.
+    public int[] toSortedArray() {
+        int[] words = new int[size];
+        int count = 0;
+        for (int index = 0; index < PackedWord.SPACE >>> 6; index++) {
+            long word = bitsAt(index);
+            while (word != 0) {
+                words[count++] = (index << 6) | Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return words;
+    }
+}
@@ -0,0 +1,65 @@
+// Letter feedback for a guess packed into one int: the guess as a PackedWord in the low 20 bits
+// and one bit per position, set when that letter matches the target, in bits 20-23.
+// Scoring and reading it back never allocate, so it can be used for every guess and every redraw.
+public final class PackedFeedback {
+
+    public static final int INVALID = -1;
+
+    private static final int WORD_BITS = PackedWord.BITS_PER_LETTER * PackedWord.LENGTH;
+    private static final int WORD_MASK = (1 << WORD_BITS) - 1;
+    private static final int ALL_CORRECT = (1 << PackedWord.LENGTH) - 1;
+
+    private PackedFeedback() {
+    }
+
+    // Feedback for the guess against the target, or INVALID if either is not a packed word.
+    public static int of(int packedGuess, int packedTarget) {
+        if (packedGuess < 0 || packedTarget < 0) return INVALID;
+        int diff = packedGuess ^ packedTarget;
+        int correct = 0;
+        for (int i = PackedWord.LENGTH - 1; i >= 0; i--) {
+            if ((diff & PackedWord.LETTER_MASK) == 0) correct |= 1 << i;
+            diff >>>= PackedWord.BITS_PER_LETTER;
+        }
+        return (correct << WORD_BITS) | packedGuess;
+    }
+
+    public static int word(int feedback) {
+        return feedback & WORD_MASK;
+    }
+
+    // Letter index (0-25) of the guess at the given position.
+    public static int letterAt(int feedback, int position) {
+        return PackedWord.letterAt(word(feedback), position);
+    }
+
+    public static boolean isCorrect(int feedback, int position) {
+        return (feedback & (1 << (WORD_BITS + position))) != 0;
+    }
+
+    // Bit i set when position i is correct.
+    public static int correctMask(int feedback) {
+        return (feedback >>> WORD_BITS) & ALL_CORRECT;
+    }
+
+    public static int correctCount(int feedback) {
+        return Integer.bitCount(correctMask(feedback));
+    }
+
+    public static boolean isSolved(int feedback) {
+        return feedback != INVALID && correctMask(feedback) == ALL_CORRECT;
+    }
+
+    public static Model.FeedbackState stateAt(int feedback, int position) {
+        return isCorrect(feedback, position) ? Model.FeedbackState.CORRECT_POSITION : Model.FeedbackState.NOT_IN_WORD;
+    }
+
+    public static String toString(int feedback) {
+        if (feedback == INVALID) return "invalid";
+        StringBuilder sb = new StringBuilder(PackedWord.LENGTH * 2);
+        for (int i = 0; i < PackedWord.LENGTH; i++) {
+            sb.append((char) ('a' + letterAt(feedback, i))).append(isCorrect(feedback, i) ? '+' : '-');
+        }
+        return sb.toString();
+    }
+}
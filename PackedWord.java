@@ -0,0 +1,66 @@
+// Packs a 4-letter word into the low 20 bits of an int, 5 bits per letter ('a' = 0 ... 'z' = 25),
+// with the first letter in the highest bits so packed values sort alphabetically.
+// Encoding is case-insensitive and never allocates; anything that is not exactly four
+// ASCII letters encodes to INVALID.
+public final class PackedWord {
+
+    public static final int LENGTH = 4;
+    public static final int BITS_PER_LETTER = 5;
+    public static final int LETTER_MASK = (1 << BITS_PER_LETTER) - 1;
+    // Number of distinct packed values, i.e. the size of a bitset covering every possible word.
+    public static final int SPACE = 1 << (BITS_PER_LETTER * LENGTH);
+    public static final int INVALID = -1;
+
+    private PackedWord() {
+    }
+
+    public static int encode(String word) {
+        if (word == null || word.length() != LENGTH) return INVALID;
+        int packed = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            int letter = letterIndex(word.charAt(i));
+            if (letter < 0) return INVALID;
+            packed = (packed << BITS_PER_LETTER) | letter;
+        }
+        return packed;
+    }
+
+    public static String decode(int packed) {
+        char[] chars = new char[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            chars[i] = (char) ('a' + letterAt(packed, i));
+        }
+        return new String(chars);
+    }
+
+    // Letter index (0-25) at the given position, 0 being the first letter.
+    public static int letterAt(int packed, int position) {
+        return (packed >>> shift(position)) & LETTER_MASK;
+    }
+
+    public static int withLetter(int packed, int position, int letter) {
+        int shift = shift(position);
+        return (packed & ~(LETTER_MASK << shift)) | (letter << shift);
+    }
+
+    // Number of positions at which the two words differ.
+    public static int differences(int a, int b) {
+        int diff = a ^ b;
+        int count = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            if ((diff & LETTER_MASK) != 0) count++;
+            diff >>>= BITS_PER_LETTER;
+        }
+        return count;
+    }
+
+    private static int shift(int position) {
+        return (LENGTH - 1 - position) * BITS_PER_LETTER;
+    }
+
+    private static int letterIndex(char c) {
+        if (c >= 'a' && c <= 'z') return c - 'a';
+        if (c >= 'A' && c <= 'Z') return c - 'A';
+        return -1;
+    }
+}
@@ -0,0 +1,98 @@
+import java.util.Arrays;
+
+// Immutable array of references stored like PagedIntArray: versions made with edit() share every
+// page they do not write.
+public final class PagedArray<T> {
+
+    private static final int PAGE_BITS = PagedIntArray.PAGE_BITS;
+    private static final int PAGE_SIZE = PagedIntArray.PAGE_SIZE;
+    private static final int PAGE_MASK = PagedIntArray.PAGE_MASK;
+
+    private final Object[][] pages;
+    private final int length;
+
+    private PagedArray(Object[][] pages, int length) {
+        this.pages = pages;
+        this.length = length;
+    }
+
+    public static <T> PagedArray<T> of(T[] values) {
+        Object[][] pages = new Object[(values.length + PAGE_MASK) >>> PAGE_BITS][];
+        for (int page = 0; page < pages.length; page++) {
+            int from = page << PAGE_BITS;
+            pages[page] = Arrays.copyOfRange(values, from, from + PAGE_SIZE, Object[].class);
+        }
+        return new PagedArray<>(pages, values.length);
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        return (T) pages[index >>> PAGE_BITS][index & PAGE_MASK];
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public Editor<T> edit() {
+        return new Editor<>(this);
+    }
+
+    // Builds one new version. Pages are copied the first time they are written; the editor must
+    // not be used after build().
+    public static final class Editor<T> {
+        private Object[][] pages;
+        private boolean[] owned;
+        private int length;
+
+        private Editor(PagedArray<T> base) {
+            pages = base.pages.clone();
+            owned = new boolean[pages.length];
+            length = base.length;
+        }
+
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            return (T) pages[index >>> PAGE_BITS][index & PAGE_MASK];
+        }
+
+        public int length() {
+            return length;
+        }
+
+        public void set(int index, T value) {
+            if (index < 0 || index >= length) throw new IndexOutOfBoundsException("Index " + index + " of " + length);
+            writablePage(index >>> PAGE_BITS)[index & PAGE_MASK] = value;
+        }
+
+        // Appends the value and returns its index.
+        public int append(T value) {
+            int index = length;
+            int page = index >>> PAGE_BITS;
+            if (page == pages.length) {
+                pages = Arrays.copyOf(pages, page + 1);
+                owned = Arrays.copyOf(owned, page + 1);
+                pages[page] = new Object[PAGE_SIZE];
+                owned[page] = true;
+            }
+            length++;
+            writablePage(page)[index & PAGE_MASK] = value;
+            return index;
+        }
+
+        private Object[] writablePage(int page) {
+            if (!owned[page]) {
+                pages[page] = pages[page].clone();
+                owned[page] = true;
+            }
+            return pages[page];
+        }
+
+        public PagedArray<T> build() {
+            PagedArray<T> built = new PagedArray<>(pages, length);
+            pages = null;
+            owned = null;
+            return built;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+import java.util.Arrays;
+
+// Immutable int array stored as fixed-size pages behind a small page directory. A new version
+// made with edit() shares every page it does not write, so changing a few elements of an array of
+// n ints costs about n / PAGE_SIZE references plus one page per page written, instead of n.
+// Reads are two array loads.
+public final class PagedIntArray {
+
+    static final int PAGE_BITS = 8;
+    static final int PAGE_SIZE = 1 << PAGE_BITS;
+    static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    public static final PagedIntArray EMPTY = new PagedIntArray(new int[0][], 0);
+
+    private final int[][] pages;
+    private final int length;
+
+    private PagedIntArray(int[][] pages, int length) {
+        this.pages = pages;
+        this.length = length;
+    }
+
+    public static PagedIntArray of(int[] values) {
+        int[][] pages = new int[(values.length + PAGE_MASK) >>> PAGE_BITS][];
+        for (int page = 0; page < pages.length; page++) {
+            int from = page << PAGE_BITS;
+            pages[page] = Arrays.copyOfRange(values, from, from + PAGE_SIZE);
+        }
+        return new PagedIntArray(pages, values.length);
+    }
+
+    public int get(int index) {
+        return pages[index >>> PAGE_BITS][index & PAGE_MASK];
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public int[] toArray() {
+        int[] values = new int[length];
+        for (int page = 0; page < pages.length; page++) {
+            int from = page << PAGE_BITS;
+            System.arraycopy(pages[page], 0, values, from, Math.min(PAGE_SIZE, length - from));
+        }
+        return values;
+    }
+
+    public Editor edit() {
+        return new Editor(this);
+    }
+
+    // Builds one new version. Pages are copied the first time they are written; the editor must
+    // not be used after build().
+    public static final class Editor {
+        private int[][] pages;
+        private boolean[] owned;
+        private int length;
+
+        private Editor(PagedIntArray base) {
+            pages = base.pages.clone();
+            owned = new boolean[pages.length];
+            length = base.length;
+        }
+
+        public int get(int index) {
+            return pages[index >>> PAGE_BITS][index & PAGE_MASK];
+        }
+
+        public int length() {
+            return length;
+        }
+
+        public void set(int index, int value) {
+            if (index < 0 || index >= length) throw new IndexOutOfBoundsException("Index " + index + " of " + length);
+            writablePage(index >>> PAGE_BITS)[index & PAGE_MASK] = value;
+        }
+
+        // Appends the value and returns its index.
+        public int append(int value) {
+            int index = length;
+            int page = index >>> PAGE_BITS;
+            if (page == pages.length) {
+                pages = Arrays.copyOf(pages, page + 1);
+                owned = Arrays.copyOf(owned, page + 1);
+                pages[page] = new int[PAGE_SIZE];
+                owned[page] = true;
+            }
+            length++;
+            writablePage(page)[index & PAGE_MASK] = value;
+            return index;
+        }
+
+        // Removes the element at index by moving the last element into its place; returns the
+        // index the last element came from (i.e. the new length).
+        public int swapRemove(int index) {
+            int last = length - 1;
+            set(index, get(last));
+            length = last;
+            return last;
+        }
+
+        private int[] writablePage(int page) {
+            if (!owned[page]) {
+                pages[page] = pages[page].clone();
+                owned[page] = true;
+            }
+            return pages[page];
+        }
+
+        public PagedIntArray build() {
+            PagedIntArray built = new PagedIntArray(pages, length);
+            pages = null;
+            owned = null;
+            return built;
+        }
+    }
+}
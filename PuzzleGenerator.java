@@ -0,0 +1,198 @@
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+// Picks (start, target) pairs whose shortest ladder has a requested length.
+// A word can start a ladder of length L exactly when its eccentricity (its distance to the
+// farthest word it can reach) is at least L, because its BFS layers cover every distance up to
+// that. For each requested length the generator works out that set of starts once, so every draw
+// succeeds: the start is drawn from the set and the target from the start's BFS layer at the
+// chosen distance. Layers are cached per start word, so once warm a puzzle costs a few random
+// draws and array reads, plus one BFS for a start that is not cached.
+//
+// Eccentricities are not computed for every word. The generator keeps a lower and an upper bound
+// per word, starting from the component sizes, and runs BFS only until each word's bounds fall
+// on one side of the requested length (as in Takes and Kosters' bounding diameters algorithm).
+public class PuzzleGenerator {
+
+    private static final int DEFAULT_CACHE_SIZE = 512;
+    private static final int[] NO_STARTS = new int[0];
+
+    private final WordGraph graph;
+    private final Map<Integer, DistanceLayers> layerCache;
+
+    // Eccentricity bounds per word id, allocated on first use. Guarded by this generator.
+    private int[] lowerBound;
+    private int[] upperBound;
+    // startsReaching[L]: ascending ids of the words with eccentricity >= L, or null if not yet known.
+    private int[][] startsReaching = new int[0][];
+    private boolean searchFromLargestUpper;
+    // Generator of an earlier graph version whose bounds initBounds() reuses; null once used.
+    private PuzzleGenerator inheritFrom;
+
+    public PuzzleGenerator(WordGraph graph) {
+        this(graph, DEFAULT_CACHE_SIZE);
+    }
+
+    public PuzzleGenerator(WordGraph graph, int cacheSize) {
+        this.graph = graph;
+        this.layerCache = new LinkedHashMap<Integer, DistanceLayers>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, DistanceLayers> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    // A generator for a graph derived from previous.getGraph() by WordGraph.withWord/withoutWord.
+    // Distances inside a component the edit did not touch are unchanged, so cached layers from
+    // such components and their words' eccentricity bounds carry over.
+    public PuzzleGenerator(WordGraph graph, PuzzleGenerator previous) {
+        this(graph);
+        synchronized (previous.layerCache) {
+            for (Map.Entry<Integer, DistanceLayers> entry : previous.layerCache.entrySet()) {
+                if (graph.hasSameComponent(previous.graph, entry.getKey())) {
+                    layerCache.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        synchronized (previous) {
+            // Skip over a previous generator that never computed bounds, so the chain stays short.
+            inheritFrom = previous.lowerBound != null ? previous : previous.inheritFrom;
+        }
+    }
+
+    // Returns a puzzle whose optimal ladder takes between minLength and maxLength moves, or null
+    // if the dictionary has no ladder that long. The same seed always gives the same puzzle for
+    // the same dictionary.
+    public Model.Puzzle generate(int minLength, int maxLength, long seed) {
+        if (minLength < 1 || maxLength < minLength) {
+            throw new IllegalArgumentException("Invalid ladder length range: " + minLength + ".." + maxLength);
+        }
+        int[] starts = startsReaching(minLength);
+        if (starts.length == 0) return null;
+
+        Random rand = new Random(seed);
+        int startId = starts[rand.nextInt(starts.length)];
+        DistanceLayers layers = layersFrom(startId);
+        int longest = Math.min(maxLength, layers.maxDistance());
+        int length = minLength + rand.nextInt(longest - minLength + 1);
+        int targetId = layers.wordAt(length, rand.nextInt(layers.layerSize(length)));
+        return new Model.Puzzle(graph.wordAt(startId), graph.wordAt(targetId), length);
+    }
+
+    public WordGraph getGraph() {
+        return graph;
+    }
+
+    public DistanceLayers layersFrom(int sourceId) {
+        synchronized (layerCache) {
+            DistanceLayers layers = layerCache.get(sourceId);
+            if (layers == null) {
+                layers = new DistanceLayers(graph, sourceId);
+                layerCache.put(sourceId, layers);
+            }
+            return layers;
+        }
+    }
+
+    // The words with eccentricity >= length, in ascending id order.
+    private synchronized int[] startsReaching(int length) {
+        if (length < startsReaching.length && startsReaching[length] != null) {
+            return startsReaching[length];
+        }
+        if (lowerBound == null) initBounds();
+        settleBoundsAround(length);
+
+        int count = 0;
+        for (int id = 0; id < lowerBound.length; id++) {
+            if (lowerBound[id] >= length) count++;
+        }
+        int[] starts = count == 0 ? NO_STARTS : new int[count];
+        count = 0;
+        for (int id = 0; id < lowerBound.length && count < starts.length; id++) {
+            if (lowerBound[id] >= length) starts[count++] = id;
+        }
+        if (length >= startsReaching.length) {
+            startsReaching = Arrays.copyOf(startsReaching, length + 1);
+        }
+        startsReaching[length] = starts;
+        if (Log.DEBUG) Log.debug("PuzzleGenerator: " + starts.length + " words start a ladder of " + length + " moves.");
+        return starts;
+    }
+
+    // A word can be no farther from anything than its component has other members. Words whose
+    // component is unchanged since the generator this one inherits from keep their bounds.
+    private void initBounds() {
+        int size = graph.size();
+        lowerBound = new int[size];
+        upperBound = new int[size];
+        PuzzleGenerator previous = inheritFrom;
+        inheritFrom = null;
+        if (previous != null) {
+            synchronized (previous) {
+                int inherited = 0;
+                for (int id = 0; id < size; id++) {
+                    if (graph.hasSameComponent(previous.graph, id)) {
+                        lowerBound[id] = previous.lowerBound[id];
+                        upperBound[id] = previous.upperBound[id];
+                        inherited++;
+                    } else {
+                        initBounds(id);
+                    }
+                }
+                if (Log.DEBUG) Log.debug("PuzzleGenerator: Inherited eccentricity bounds for " + inherited + " words.");
+            }
+            return;
+        }
+        for (int id = 0; id < size; id++) {
+            initBounds(id);
+        }
+    }
+
+    private void initBounds(int id) {
+        int componentSize = graph.isLive(id) ? graph.componentSize(graph.componentOf(id)) : 0;
+        if (componentSize > 1) {
+            lowerBound[id] = 1;
+            upperBound[id] = componentSize - 1;
+        }
+    }
+
+    // Searches until no word's bounds straddle length, i.e. every word is known to reach it or
+    // known not to. Sources alternate between the undecided word with the largest upper bound and
+    // the one with the smallest lower bound; a search settles its own source exactly, so the loop
+    // always ends.
+    private void settleBoundsAround(int length) {
+        int searches = 0;
+        while (true) {
+            int source = -1;
+            for (int id = 0; id < lowerBound.length; id++) {
+                if (lowerBound[id] >= length || upperBound[id] < length) continue;
+                if (source < 0
+                        || (searchFromLargestUpper ? upperBound[id] > upperBound[source] : lowerBound[id] < lowerBound[source])) {
+                    source = id;
+                }
+            }
+            if (source < 0) break;
+            searchFromLargestUpper = !searchFromLargestUpper;
+            tightenBounds(layersFrom(source));
+            searches++;
+        }
+        if (Log.DEBUG && searches > 0) Log.debug("PuzzleGenerator: Settled eccentricity bounds for length " + length + " with " + searches + " searches.");
+    }
+
+    // With e the source's eccentricity and d its distance to w: max(d, e - d) <= ecc(w) <= e + d.
+    private void tightenBounds(DistanceLayers layers) {
+        int eccentricity = layers.maxDistance();
+        for (int d = 0; d <= eccentricity; d++) {
+            int lower = Math.max(d, eccentricity - d);
+            int upper = eccentricity + d;
+            for (int i = 0; i < layers.layerSize(d); i++) {
+                int id = layers.wordAt(d, i);
+                lowerBound[id] = Math.max(lowerBound[id], lower);
+                upperBound[id] = Math.min(upperBound[id], upper);
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// All shortest ladders between two words, described by the layered DAG of BFS distances.
+// A word lies on a shortest ladder exactly when distFromStart + distToTarget equals the ladder
+// length, and every step moves one layer closer to the target. count() sums path counts over
+// that DAG in one pass; iterator() walks it depth-first, holding only the current ladder, so
+// ladders are streamed without ever being collected.
+public class ShortestLadders implements Iterable<List<String>> {
+
+    private final WordGraph graph;
+    private final int startId;
+    private final int targetId;
+    private final DistanceLayers fromTarget;
+    private final int length;
+    private final long count;
+
+    public ShortestLadders(WordGraph graph, int startId, DistanceLayers fromStart, DistanceLayers fromTarget) {
+        this.graph = graph;
+        this.startId = startId;
+        this.targetId = fromTarget.getSource();
+        this.fromTarget = fromTarget;
+        this.length = fromTarget.distanceTo(startId);
+        if (fromStart.getSource() != startId) {
+            throw new IllegalArgumentException("fromStart must be the layers of the start word");
+        }
+        this.count = length >= 0 ? countPaths(fromStart) : 0;
+    }
+
+    // Number of moves in a shortest ladder, or -1 when the words are not connected.
+    public int length() {
+        return length;
+    }
+
+    // Number of distinct shortest ladders; saturates at Long.MAX_VALUE.
+    public long count() {
+        return count;
+    }
+
+    // True when the ladder (both ends included) is one of the shortest ones.
+    public boolean isShortestLadder(List<String> ladder) {
+        if (length < 0 || ladder == null || ladder.size() != length + 1) return false;
+        int previous = graph.idOf(ladder.get(0));
+        if (previous != startId) return false;
+        for (int i = 1; i < ladder.size(); i++) {
+            int id = graph.idOf(ladder.get(i));
+            if (id < 0 || !graph.areAdjacent(previous, id)) return false;
+            previous = id;
+        }
+        return previous == targetId;
+    }
+
+    // Visits the target's layers outwards, so every successor's count is final before it is used.
+    private long countPaths(DistanceLayers fromStart) {
+        long[] paths = new long[graph.size()];
+        paths[targetId] = 1;
+        for (int d = 1; d <= length; d++) {
+            for (int i = 0; i < fromTarget.layerSize(d); i++) {
+                int id = fromTarget.wordAt(d, i);
+                if (fromStart.distanceTo(id) != length - d) continue;
+                long sum = 0;
+                for (int neighbor : graph.neighbors(id)) {
+                    if (fromTarget.distanceTo(neighbor) == d - 1) {
+                        sum = saturatingAdd(sum, paths[neighbor]);
+                    }
+                }
+                paths[id] = sum;
+            }
+        }
+        return paths[startId];
+    }
+
+    private static long saturatingAdd(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    @Override
+    public Iterator<List<String>> iterator() {
+        if (length < 0) return Collections.emptyIterator();
+        return new LadderIterator();
+    }
+
+    // Depth-first walk where position k of the ladder holds a word at distance length - k from the
+    // target. Any such step is part of a shortest ladder, so the walk never reaches a dead end.
+    private class LadderIterator implements Iterator<List<String>> {
+        private final int[] ladder = new int[length + 1];
+        // Index into neighbors(ladder[k]) of the next candidate for position k + 1.
+        private final int[] nextNeighbor = new int[length + 1];
+        private boolean hasNext = true;
+
+        LadderIterator() {
+            ladder[0] = startId;
+            descend(0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasNext;
+        }
+
+        @Override
+        public List<String> next() {
+            if (!hasNext) throw new NoSuchElementException();
+            List<String> words = new ArrayList<>(ladder.length);
+            for (int id : ladder) {
+                words.add(graph.wordAt(id));
+            }
+            advance();
+            return words;
+        }
+
+        // Fills positions after k with the first remaining choice at each step.
+        private void descend(int k) {
+            for (; k < length; k++) {
+                nextNeighbor[k] = 0;
+                ladder[k + 1] = nextStep(k);
+            }
+        }
+
+        private int nextStep(int k) {
+            int[] neighbors = graph.neighbors(ladder[k]);
+            int wanted = length - k - 1;
+            while (nextNeighbor[k] < neighbors.length) {
+                int candidate = neighbors[nextNeighbor[k]++];
+                if (fromTarget.distanceTo(candidate) == wanted) return candidate;
+            }
+            return -1;
+        }
+
+        // Backtracks to the deepest position with another choice left and descends from there.
+        private void advance() {
+            for (int k = length - 1; k >= 0; k--) {
+                int step = nextStep(k);
+                if (step >= 0) {
+                    ladder[k + 1] = step;
+                    descend(k + 1);
+                    return;
+                }
+            }
+            hasNext = false;
+        }
+    }
+}
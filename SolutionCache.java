@@ -0,0 +1,205 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntPredicate;
+
+// Bounded LRU cache of solved ladders keyed by the (start, target) word pair, shared by every
+// Model on the same Lexicon. The key is the two packed words in one long. Entries live in
+// fixed-size parallel arrays: an open-addressing table of primitive long keys finds an entry's
+// slot, and an int-linked list through the slots keeps the recency order, so lookups and
+// updates neither box the key nor allocate. Cached ladders are immutable lists. Thread-safe.
+public class SolutionCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 4096;
+
+    private static final int NONE = -1;
+
+    private final int maxEntries;
+    // Per slot: key, ladder and neighbours in the recency list (head = most recently used).
+    private final long[] keys;
+    private final Object[] values;
+    private final int[] newer;
+    private final int[] older;
+    // Open-addressing table (linear probing) of slot + 1; 0 marks an empty bucket.
+    private final int[] table;
+    private final int tableShift;
+    private int size;
+    private int head = NONE;
+    private int tail = NONE;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public SolutionCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public SolutionCache(int maxEntries) {
+        if (maxEntries < 1) throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        this.maxEntries = maxEntries;
+        keys = new long[maxEntries];
+        values = new Object[maxEntries];
+        newer = new int[maxEntries];
+        older = new int[maxEntries];
+        // At most half full, so probe sequences stay short.
+        int buckets = Integer.highestOneBit(Math.max(2, maxEntries) * 2 - 1) << 1;
+        table = new int[buckets];
+        tableShift = 64 - Integer.numberOfTrailingZeros(buckets);
+    }
+
+    private static long key(int packedStart, int packedTarget) {
+        return ((long) packedStart << 32) | (packedTarget & 0xFFFFFFFFL);
+    }
+
+    private int bucketOf(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> tableShift);
+    }
+
+    // Returns the cached ladder or null, counting a hit or a miss.
+    @SuppressWarnings("unchecked")
+    public List<String> get(int packedStart, int packedTarget) {
+        List<String> path = null;
+        synchronized (this) {
+            int slot = find(key(packedStart, packedTarget));
+            if (slot != NONE) {
+                moveToHead(slot);
+                path = (List<String>) values[slot];
+            }
+        }
+        if (path != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return path;
+    }
+
+    // Stores an immutable copy of the ladder and returns it.
+    public List<String> put(int packedStart, int packedTarget, List<String> path) {
+        List<String> immutable = List.copyOf(path);
+        long key = key(packedStart, packedTarget);
+        synchronized (this) {
+            int slot = find(key);
+            if (slot == NONE) {
+                if (size < maxEntries) {
+                    slot = size++;
+                } else {
+                    slot = tail;
+                    unlink(slot);
+                    removeFromTable(keys[slot]);
+                    evictions.increment();
+                }
+                keys[slot] = key;
+                insertIntoTable(key, slot);
+            } else {
+                unlink(slot);
+            }
+            values[slot] = immutable;
+            linkAtHead(slot);
+        }
+        return immutable;
+    }
+
+    // Drops every entry, e.g. when the dictionary the ladders were computed on is replaced.
+    public synchronized void invalidate() {
+        Arrays.fill(table, 0);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+        head = NONE;
+        tail = NONE;
+    }
+
+    // Copies the entries whose packed start word passes keepStart into target, keeping their
+    // recency order; used to carry still-valid ladders over to a new dictionary version.
+    @SuppressWarnings("unchecked")
+    public synchronized void copyInto(SolutionCache target, IntPredicate keepStart) {
+        for (int slot = tail; slot != NONE; slot = newer[slot]) {
+            int packedStart = (int) (keys[slot] >>> 32);
+            if (keepStart.test(packedStart)) {
+                target.put(packedStart, (int) keys[slot], (List<String>) values[slot]);
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private int find(long key) {
+        int mask = table.length - 1;
+        for (int bucket = bucketOf(key); ; bucket = (bucket + 1) & mask) {
+            int entry = table[bucket];
+            if (entry == 0) return NONE;
+            if (keys[entry - 1] == key) return entry - 1;
+        }
+    }
+
+    private void insertIntoTable(long key, int slot) {
+        int mask = table.length - 1;
+        int bucket = bucketOf(key);
+        while (table[bucket] != 0) {
+            bucket = (bucket + 1) & mask;
+        }
+        table[bucket] = slot + 1;
+    }
+
+    // Backward-shift deletion: later entries of the probe run move up into the gap, so lookups
+    // never need tombstones.
+    private void removeFromTable(long key) {
+        int mask = table.length - 1;
+        int gap = bucketOf(key);
+        while (keys[table[gap] - 1] != key) {
+            gap = (gap + 1) & mask;
+        }
+        for (int bucket = (gap + 1) & mask; table[bucket] != 0; bucket = (bucket + 1) & mask) {
+            int home = bucketOf(keys[table[bucket] - 1]);
+            // Move the entry unless its home lies cyclically in (gap, bucket].
+            if (((bucket - home) & mask) >= ((bucket - gap) & mask)) {
+                table[gap] = table[bucket];
+                gap = bucket;
+            }
+        }
+        table[gap] = 0;
+    }
+
+    private void moveToHead(int slot) {
+        if (slot == head) return;
+        unlink(slot);
+        linkAtHead(slot);
+    }
+
+    private void unlink(int slot) {
+        if (newer[slot] != NONE) older[newer[slot]] = older[slot]; else head = older[slot];
+        if (older[slot] != NONE) newer[older[slot]] = newer[slot]; else tail = newer[slot];
+    }
+
+    private void linkAtHead(int slot) {
+        newer[slot] = NONE;
+        older[slot] = head;
+        if (head != NONE) newer[head] = slot; else tail = slot;
+        head = slot;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public double getHitRate() {
+        long h = getHits();
+        long total = h + getMisses();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+}
@@ -1,11 +1,12 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Observable;
-import java.util.Observer;
+import java.util.concurrent.CancellationException;
 
-public class View extends JFrame implements Observer {
+public class View extends JFrame implements ModelListener {
     private Model model;
     private Controller controller;
 
@@ -13,9 +14,13 @@ public class View extends JFrame implements Observer {
     private JPanel mainPanel;
     private JPanel boardPanel;
     private JPanel solutionDisplayPanel;
+    private javax.swing.border.TitledBorder solutionBorder;
     private JPanel keyboardPanel;
     private JButton resetButton;
     private JButton newGameButton;
+    private JButton hintButton;
+    private JButton undoButton;
+    private JButton redoButton;
     private JButton submitButton;
     private JTextField inputField;
     private JLabel messageLabel;
@@ -30,6 +35,14 @@ public class View extends JFrame implements Observer {
     private static final Color DEFAULT_CELL_BG = Color.WHITE;
     private static final Color DEFAULT_CELL_FG = Color.BLACK;
     private static final Color START_TARGET_BG = Color.LIGHT_GRAY;
+    // Upper-case cell text per letter index, so redrawing a feedback row creates no strings.
+    private static final String[] LETTER_TEXT = new String[26];
+
+    static {
+        for (int i = 0; i < LETTER_TEXT.length; i++) {
+            LETTER_TEXT[i] = String.valueOf((char) ('A' + i));
+        }
+    }
 
 
     private final int MAX_GUESS_ROWS = 6;
@@ -37,26 +50,33 @@ public class View extends JFrame implements Observer {
 
     private final int MAX_SOLUTION_PATH_ROWS = 6;
     private JLabel[][] solutionPathLabels;
+    // Solution path cache for the puzzle on screen ("start->target"); only touched on the EDT.
+    private String solvedPuzzleKey;
+    private List<String> solvedPath;
+    private String pendingPuzzleKey;
+    // Shown (as an empty path) when the search itself failed, so it is not retried on every refresh.
+    private static final List<String> SOLVE_FAILED = Collections.unmodifiableList(new ArrayList<>());
 
-    private String currentArg = "";
+    // Most recent event delivered to this view; null until the first notification.
+    private ModelEvent lastEvent;
 
     public View(Model model) {
-        System.out.println("View Constructor: Initializing View with Model: " + model);
+        Log.debug(() -> "View Constructor: Initializing View with Model: " + model);
         this.model = model;
         initializeUI();
-        this.model.addObserver(this);
-        System.out.println("View Constructor: Observer added. Performing initial display update.");
-        updateDisplayBasedOnModel();
+        this.model.addListener(this, SwingUtilities::invokeLater);
+        Log.debug("View Constructor: Listener added. Performing initial display update.");
+        updateDisplayBasedOnModel(model.getSnapshot());
     }
 
     public void setController(Controller controller) {
-        System.out.println("View setController: Setting controller: " + controller);
+        Log.debug(() -> "View setController: Setting controller: " + controller);
         this.controller = controller;
         assignActionListeners();
     }
 
     private void initializeUI() {
-        System.out.println("View initializeUI: Starting UI initialization.");
+        Log.debug("View initializeUI: Starting UI initialization.");
         setTitle("Weaver Game");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLayout(new BorderLayout(10, 10));
@@ -78,7 +98,8 @@ public class View extends JFrame implements Observer {
 
         solutionDisplayPanel = new JPanel();
         solutionDisplayPanel.setLayout(new GridLayout(MAX_SOLUTION_PATH_ROWS, 4, 3, 3));
-        solutionDisplayPanel.setBorder(BorderFactory.createTitledBorder("Solution Path"));
+        solutionBorder = BorderFactory.createTitledBorder("Solution Path");
+        solutionDisplayPanel.setBorder(solutionBorder);
         solutionDisplayPanel.setVisible(false); // Start hidden
         initializeSolutionPathLabels();
         gameDisplayArea.add(solutionDisplayPanel);
@@ -140,11 +161,11 @@ public class View extends JFrame implements Observer {
         setMinimumSize(new Dimension(550, 700));
         setLocationRelativeTo(null);
         setVisible(true);
-        System.out.println("View initializeUI: UI initialization complete. Frame visible.");
+        Log.debug("View initializeUI: UI initialization complete. Frame visible.");
     }
 
     private void initializeBoardLabels() {
-        System.out.println("View initializeBoardLabels: Initializing guessLetterLabels for boardPanel.");
+        Log.debug("View initializeBoardLabels: Initializing guessLetterLabels for boardPanel.");
         guessLetterLabels = new JLabel[MAX_GUESS_ROWS + 2][4];
         for (int i = 0; i < MAX_GUESS_ROWS + 2; i++) {
             for (int j = 0; j < 4; j++) {
@@ -152,11 +173,11 @@ public class View extends JFrame implements Observer {
                 boardPanel.add(guessLetterLabels[i][j]);
             }
         }
-        System.out.println("View initializeBoardLabels: guessLetterLabels initialized and added to boardPanel.");
+        Log.debug("View initializeBoardLabels: guessLetterLabels initialized and added to boardPanel.");
     }
 
     private void initializeSolutionPathLabels() {
-        System.out.println("View initializeSolutionPathLabels: Initializing solutionPathLabels for solutionDisplayPanel.");
+        Log.debug("View initializeSolutionPathLabels: Initializing solutionPathLabels for solutionDisplayPanel.");
         solutionPathLabels = new JLabel[MAX_SOLUTION_PATH_ROWS][4];
         for (int i = 0; i < MAX_SOLUTION_PATH_ROWS; i++) {
             for (int j = 0; j < 4; j++) {
@@ -164,7 +185,7 @@ public class View extends JFrame implements Observer {
                 solutionDisplayPanel.add(solutionPathLabels[i][j]);
             }
         }
-        System.out.println("View initializeSolutionPathLabels: solutionPathLabels initialized and added to solutionDisplayPanel.");
+        Log.debug("View initializeSolutionPathLabels: solutionPathLabels initialized and added to solutionDisplayPanel.");
     }
 
     private JLabel createSingleLetterLabel() {
@@ -179,35 +200,44 @@ public class View extends JFrame implements Observer {
     }
 
     private JPanel createControlsPanel() {
-        System.out.println("View createControlsPanel: Creating top controls panel.");
+        Log.debug("View createControlsPanel: Creating top controls panel.");
         JPanel panel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 5));
         resetButton = new JButton("Reset");
         newGameButton = new JButton("New Game");
+        hintButton = new JButton("Hint");
+        undoButton = new JButton("Undo");
+        redoButton = new JButton("Redo");
         showErrorButton = new JToggleButton("Show Errors", model.isShowErrorMessage());
         showPathButton = new JToggleButton("Show Path", model.isShowPath());
         randomWordsButton = new JToggleButton("Random Words", model.isUseRandomWords());
 
         panel.add(resetButton);
         panel.add(newGameButton);
+        panel.add(hintButton);
+        panel.add(undoButton);
+        panel.add(redoButton);
         panel.add(Box.createHorizontalStrut(15));
         panel.add(showErrorButton);
         panel.add(showPathButton);
         panel.add(randomWordsButton);
-        System.out.println("View createControlsPanel: Top controls panel created.");
+        Log.debug("View createControlsPanel: Top controls panel created.");
         return panel;
     }
 
     private void assignActionListeners() {
         if (controller == null) {
-            System.err.println("View Error: Controller not set. Action listeners cannot be assigned.");
+            Log.error("View: Controller not set. Action listeners cannot be assigned.");
             return;
         }
-        System.out.println("View assignActionListeners: Assigning action listeners to control buttons.");
+        Log.debug("View assignActionListeners: Assigning action listeners to control buttons.");
         resetButton.addActionListener(e -> controller.resetGame());
         newGameButton.addActionListener(e -> model.initializeGame());
+        hintButton.addActionListener(e -> controller.requestHint());
+        undoButton.addActionListener(e -> controller.undoMove());
+        redoButton.addActionListener(e -> controller.redoMove());
         showErrorButton.addActionListener(e -> controller.toggleErrorMessages());
         showPathButton.addActionListener(e -> {
-            System.out.println("View: Show Path button clicked. Current JToggleButton selected state: " + showPathButton.isSelected());
+            Log.debug(() -> "View: Show Path button clicked. Current JToggleButton selected state: " + showPathButton.isSelected());
             controller.toggleShowPath();
         });
         randomWordsButton.addActionListener(e -> controller.toggleRandomWords());
@@ -215,7 +245,7 @@ public class View extends JFrame implements Observer {
 
 
     private JPanel createKeyboard() {
-        System.out.println("View createKeyboard: Creating keyboard panel.");
+        Log.debug("View createKeyboard: Creating keyboard panel.");
         JPanel keyboard = new JPanel(new GridBagLayout());
         String[][] keyRows = {
                 {"Q", "W", "E", "R", "T", "Y", "U", "I", "O", "P"},
@@ -264,77 +294,113 @@ public class View extends JFrame implements Observer {
                 keyboard.add(button, gbc);
             }
         }
-        System.out.println("View createKeyboard: Keyboard panel created.");
+        Log.debug("View createKeyboard: Keyboard panel created.");
         return keyboard;
     }
 
     private void submitWord() {
         String word = inputField.getText().trim();
-        System.out.println("View submitWord: Attempting to submit word: '" + word + "'");
+        Log.debug(() -> "View submitWord: Attempting to submit word: '" + word + "'");
         if (controller != null && !word.isEmpty()) {
             controller.processInput(word);
             inputField.setText("");
             inputField.requestFocusInWindow();
-            System.out.println("View submitWord: Word submitted and input field cleared.");
+            Log.debug("View submitWord: Word submitted and input field cleared.");
         } else if (controller == null) {
-            System.err.println("View: Controller not set, cannot process input for word: '" + word + "'");
+            Log.error("View: Controller not set, cannot process input for word: '" + word + "'");
         } else {
-            System.out.println("View submitWord: Word is empty, not submitting.");
+            Log.debug("View submitWord: Word is empty, not submitting.");
         }
     }
 
-    private void updateDisplayBasedOnModel() {
-        System.out.println("View updateDisplayBasedOnModel: Updating display based on model state.");
-        System.out.println("View updateDisplayBasedOnModel: StartWord='" + model.getStartWord() + "', TargetWord='" + model.getTargetWord() + "', HistorySize=" + model.getGameHistory().size());
-        System.out.println("View updateDisplayBasedOnModel: isShowPath=" + model.isShowPath() + ", isShowError=" + model.isShowErrorMessage() + ", isRandom=" + model.isUseRandomWords());
+    // Everything is read from the one snapshot, so every row, the solution panel and the buttons
+    // reflect the same game even if the Model changes on another thread meanwhile.
+    private void updateDisplayBasedOnModel(GameSnapshot game) {
+        Log.debug("View updateDisplayBasedOnModel: Updating display based on model state.");
+        Log.debug(() -> "View updateDisplayBasedOnModel: StartWord='" + game.startWord + "', TargetWord='" + game.targetWord + "', HistorySize=" + game.history.size());
+        Log.debug(() -> "View updateDisplayBasedOnModel: isShowPath=" + game.showPath + ", isShowError=" + game.showErrorMessage + ", isRandom=" + game.useRandomWords);
 
         // 1. Update Start Word display
-        String startWord = model.getStartWord();
-        System.out.println("View updateDisplayBasedOnModel: Updating start word display for: '" + startWord + "'");
-        updateWordRow(guessLetterLabels[0], startWord, false, null);
+        String startWord = game.startWord;
+        Log.debug(() -> "View updateDisplayBasedOnModel: Updating start word display for: '" + startWord + "'");
+        updateWordRow(game, guessLetterLabels[0], startWord, false, null);
 
         // 2. Update Game History display
-        List<String> history = model.getGameHistory();
-        Model.LetterFeedback[] lastAttemptFeedback = model.getLastGuessFeedback();
-        System.out.println("View updateDisplayBasedOnModel: History: " + history);
-        System.out.println("View updateDisplayBasedOnModel: LastAttemptFeedback: " + (lastAttemptFeedback != null ? java.util.Arrays.toString(lastAttemptFeedback) : "null"));
+        List<String> history = game.history;
+        int packedTarget = PackedWord.encode(game.targetWord);
+        Model.LetterFeedback[] lastAttemptFeedback = game.lastGuessFeedback();
+        Log.debug(() -> "View updateDisplayBasedOnModel: History: " + history);
+        Log.debug(() -> "View updateDisplayBasedOnModel: LastAttemptFeedback: " + (lastAttemptFeedback != null ? java.util.Arrays.toString(lastAttemptFeedback) : "null"));
 
 
         for (int i = 0; i < MAX_GUESS_ROWS; i++) {
             int historyRowIndex = i + 1;
             if (i < history.size()) {
                 String guessedWord = history.get(i);
-                System.out.println("View updateDisplayBasedOnModel: Updating history row " + i + " (JLabel row " + historyRowIndex + ") with word: '" + guessedWord + "'");
-                Model.LetterFeedback[] feedback = model.checkGuess(guessedWord); // Get feedback for this historical guess
-                System.out.println("View updateDisplayBasedOnModel: Feedback for '" + guessedWord + "': " + java.util.Arrays.toString(feedback));
-                updateWordRow(guessLetterLabels[historyRowIndex], null, true, feedback);
+                if (Log.DEBUG) Log.debug("View updateDisplayBasedOnModel: Updating history row " + i + " (JLabel row " + historyRowIndex + ") with word: '" + guessedWord + "'");
+                // History words are always dictionary words, so the packed feedback applies.
+                int feedback = PackedFeedback.of(PackedWord.encode(guessedWord), packedTarget);
+                if (Log.DEBUG) Log.debug("View updateDisplayBasedOnModel: Feedback for '" + guessedWord + "': " + PackedFeedback.toString(feedback));
+                updateFeedbackRow(guessLetterLabels[historyRowIndex], feedback);
             } else if (i == history.size() && lastAttemptFeedback != null &&
-                    !"reset".equals(currentArg) && !currentArg.startsWith("flag_changed") &&
-                    !"move_successful_feedback".equals(currentArg)) {
+                    (lastEvent == null || (!lastEvent.isReset() && !lastEvent.isFlagChange() &&
+                    lastEvent.type != ModelEvent.Type.MOVE_ACCEPTED))) {
                 // This block is to show feedback for an attempt that wasn't added to history (e.g. invalid move)
-                System.out.println("View updateDisplayBasedOnModel: Displaying lastAttemptFeedback at history row " + i + " (JLabel row " + historyRowIndex + ")");
-                updateWordRow(guessLetterLabels[historyRowIndex], null, true, lastAttemptFeedback);
+                if (Log.DEBUG) Log.debug("View updateDisplayBasedOnModel: Displaying lastAttemptFeedback at history row " + i + " (JLabel row " + historyRowIndex + ")");
+                updateWordRow(game, guessLetterLabels[historyRowIndex], null, true, lastAttemptFeedback);
             } else {
                 // Clear unused guess rows
-                System.out.println("View updateDisplayBasedOnModel: Clearing history row " + i + " (JLabel row " + historyRowIndex + ")");
-                updateWordRow(guessLetterLabels[historyRowIndex], "", false, null);
+                if (Log.DEBUG) Log.debug("View updateDisplayBasedOnModel: Clearing history row " + i + " (JLabel row " + historyRowIndex + ")");
+                updateWordRow(game, guessLetterLabels[historyRowIndex], "", false, null);
             }
         }
 
         // 3. Update Target Word display
-        String targetWord = model.getTargetWord();
+        String targetWord = game.targetWord;
         int targetRowDisplayIndex = MAX_GUESS_ROWS + 1;
-        System.out.println("View updateDisplayBasedOnModel: Updating target word display for: '" + targetWord + "', HasWon=" + model.hasWon());
-        updateWordRow(guessLetterLabels[targetRowDisplayIndex], targetWord, model.hasWon(), null);
+        Log.debug(() -> "View updateDisplayBasedOnModel: Updating target word display for: '" + targetWord + "', HasWon=" + game.hasWon());
+        updateWordRow(game, guessLetterLabels[targetRowDisplayIndex], targetWord, game.hasWon(), null);
 
         // 4. Update Solution Path Display
-        System.out.println("View updateDisplayBasedOnModel: Checking showPath flag: " + model.isShowPath());
+        updateSolutionPathDisplay(game);
+
+        // Update button states
+        resetButton.setEnabled(!game.history.isEmpty() && !game.hasWon());
+        newGameButton.setEnabled(true);
+        undoButton.setEnabled(game.canUndo());
+        redoButton.setEnabled(game.canRedo());
+        submitButton.setEnabled(!game.hasWon());
+        inputField.setEnabled(!game.hasWon());
+
+        showErrorButton.setSelected(game.showErrorMessage);
+        showPathButton.setSelected(game.showPath);
+        randomWordsButton.setSelected(game.useRandomWords);
+        Log.debug("View updateDisplayBasedOnModel: Button states updated.");
+
+        mainPanel.revalidate();
+        mainPanel.repaint();
+        Log.debug("View updateDisplayBasedOnModel: mainPanel revalidated and repainted. Update cycle finished.");
+    }
+
+    // Renders the solution panel from the cached path, or a "computing" state while the search
+    // runs off the EDT. Called again (on the EDT) when the search result arrives.
+    private void updateSolutionPathDisplay(GameSnapshot game) {
+        Log.debug(() -> "View updateSolutionPathDisplay: Checking showPath flag: " + game.showPath);
         // Get the direct parent of solutionDisplayPanel to revalidate it
         Container gameDisplayArea = solutionDisplayPanel.getParent();
 
-        if (model.isShowPath()) {
-            List<String> solutionPath = model.getDisplayableSolutionPath();
-            System.out.println("View updateDisplayBasedOnModel: Show Path is TRUE. Solution Path from Model: " + solutionPath);
+        if (game.showPath) {
+            List<String> solutionPath = solutionPathForPuzzle(game);
+            Log.debug(() -> "View updateSolutionPathDisplay: Show Path is TRUE. Solution Path from Model: " + (solutionPath != null ? solutionPath : "computing"));
+            if (solutionPath == null) {
+                solutionBorder.setTitle("Solution Path (computing...)");
+            } else if (solutionPath == SOLVE_FAILED) {
+                solutionBorder.setTitle("Solution Path (search failed)");
+            } else if (solutionPath.isEmpty()) {
+                solutionBorder.setTitle("Solution Path (no ladder exists)");
+            } else {
+                solutionBorder.setTitle("Solution Path");
+            }
             boolean contentChanged = false; // To check if we actually update labels
 
             for (int i = 0; i < MAX_SOLUTION_PATH_ROWS; i++) {
@@ -342,25 +408,25 @@ public class View extends JFrame implements Observer {
                 if (solutionPath != null && i < solutionPath.size()) {
                     String pathWord = solutionPath.get(i);
                     if (!pathWord.equalsIgnoreCase(currentTextInLabel)) contentChanged = true;
-                    System.out.println("View updateDisplayBasedOnModel: Displaying solution path word " + i + ": '" + pathWord + "'");
-                    updateWordRow(solutionPathLabels[i], pathWord, false, null, SOLUTION_PATH_COLOR, Color.BLACK);
+                    if (Log.DEBUG) Log.debug("View updateSolutionPathDisplay: Displaying solution path word " + i + ": '" + pathWord + "'");
+                    updateWordRow(game, solutionPathLabels[i], pathWord, false, null, SOLUTION_PATH_COLOR, Color.BLACK);
                 } else {
                     if (!currentTextInLabel.isEmpty()) contentChanged = true;
-                    // System.out.println("View updateDisplayBasedOnModel: Clearing solution path row " + i);
-                    updateWordRow(solutionPathLabels[i], "", false, null);
+                    // if (Log.DEBUG) Log.debug("View updateSolutionPathDisplay: Clearing solution path row " + i);
+                    updateWordRow(game, solutionPathLabels[i], "", false, null);
                 }
             }
             // Only change visibility and revalidate if it was hidden or content changed
             if (!solutionDisplayPanel.isVisible() || contentChanged) {
                 solutionDisplayPanel.setVisible(true);
-                System.out.println("DEBUG View.updateDisplayBasedOnModel: solutionDisplayPanel set to VISIBLE or content changed.");
+                Log.debug("View updateSolutionPathDisplay: solutionDisplayPanel set to VISIBLE or content changed.");
             }
 
-        } else { // model.isShowPath() is false
+        } else { // game.showPath is false
             if (solutionDisplayPanel.isVisible()) { // Only hide if it was visible
-                System.out.println("DEBUG View.updateDisplayBasedOnModel: Show Path is FALSE. Hiding solutionDisplayPanel.");
+                Log.debug("View updateSolutionPathDisplay: Show Path is FALSE. Hiding solutionDisplayPanel.");
                 for (int i = 0; i < MAX_SOLUTION_PATH_ROWS; i++) { // Clear labels before hiding
-                    updateWordRow(solutionPathLabels[i], "", false, null);
+                    updateWordRow(game, solutionPathLabels[i], "", false, null);
                 }
                 solutionDisplayPanel.setVisible(false);
             }
@@ -370,32 +436,56 @@ public class View extends JFrame implements Observer {
             gameDisplayArea.revalidate();
             gameDisplayArea.repaint();
         }
+    }
 
+    // Returns the shortest ladder for the snapshot's puzzle, or null while it is still being
+    // computed. The search runs on the Model's solver threads; the Model cancels it if the
+    // puzzle changes, and a result for a puzzle that is no longer shown is ignored. When it
+    // arrives the panel is drawn again from a fresh snapshot.
+    private List<String> solutionPathForPuzzle(GameSnapshot game) {
+        String puzzleKey = game.startWord + "->" + game.targetWord;
+        if (puzzleKey.equals(solvedPuzzleKey)) {
+            return solvedPath;
+        }
+        if (!puzzleKey.equals(pendingPuzzleKey)) {
+            pendingPuzzleKey = puzzleKey;
+            // Every outcome clears the pending key. A search cancelled by a new game (possibly
+            // a reset to this same puzzle) is simply asked for again by the redraw below.
+            model.getSolutionPathAsync(game).whenComplete((path, failure) -> SwingUtilities.invokeLater(() -> {
+                if (!puzzleKey.equals(pendingPuzzleKey)) return;
+                pendingPuzzleKey = null;
+                if (failure == null) {
+                    solvedPuzzleKey = puzzleKey;
+                    solvedPath = path;
+                } else if (!(failure instanceof CancellationException)) {
+                    Log.error("View: Solving " + puzzleKey + " failed: " + failure.getMessage(), failure);
+                    solvedPuzzleKey = puzzleKey;
+                    solvedPath = SOLVE_FAILED;
+                }
+                updateSolutionPathDisplay(model.getSnapshot());
+            }));
+        }
+        return null;
+    }
 
-        // Update button states
-        resetButton.setEnabled(!model.getGameHistory().isEmpty() && !model.hasWon());
-        newGameButton.setEnabled(true);
-        submitButton.setEnabled(!model.hasWon());
-        inputField.setEnabled(!model.hasWon());
-
-        showErrorButton.setSelected(model.isShowErrorMessage());
-        showPathButton.setSelected(model.isShowPath());
-        randomWordsButton.setSelected(model.isUseRandomWords());
-        System.out.println("View updateDisplayBasedOnModel: Button states updated.");
-
-        mainPanel.revalidate();
-        mainPanel.repaint();
-        System.out.println("View updateDisplayBasedOnModel: mainPanel revalidated and repainted. Update cycle finished.");
+    private void updateFeedbackRow(JLabel[] rowLabels, int feedback) {
+        for (int j = 0; j < rowLabels.length && j < PackedWord.LENGTH; j++) {
+            JLabel cell = rowLabels[j];
+            cell.setText(LETTER_TEXT[PackedFeedback.letterAt(feedback, j)]);
+            cell.setBackground(PackedFeedback.isCorrect(feedback, j) ? CORRECT_COLOR : WRONG_COLOR);
+            cell.setForeground(Color.WHITE);
+        }
     }
 
-    private void updateWordRow(JLabel[] rowLabels, String word, boolean applyFeedback, Model.LetterFeedback[] feedback, Color... customBgFg) {
-        System.out.println("View updateWordRow: Updating a row. Word: '" + (word == null ? "null_str" : word) + "', ApplyFeedback: " + applyFeedback + ", Feedback: " + (feedback != null ? java.util.Arrays.toString(feedback) : "null_feedback") + ", CustomBG: " + (customBgFg != null && customBgFg.length > 0));
+    // Start and target words are highlighted according to the game being rendered.
+    private void updateWordRow(GameSnapshot game, JLabel[] rowLabels, String word, boolean applyFeedback, Model.LetterFeedback[] feedback, Color... customBgFg) {
+        Log.debug(() -> "View updateWordRow: Updating a row. Word: '" + (word == null ? "null_str" : word) + "', ApplyFeedback: " + applyFeedback + ", Feedback: " + (feedback != null ? java.util.Arrays.toString(feedback) : "null_feedback") + ", CustomBG: " + (customBgFg != null && customBgFg.length > 0));
         Color defaultBg = (customBgFg != null && customBgFg.length > 0) ? customBgFg[0] : DEFAULT_CELL_BG;
         Color defaultFg = (customBgFg != null && customBgFg.length > 1) ? customBgFg[1] : DEFAULT_CELL_FG;
 
         for (int j = 0; j < 4; j++) {
             if (rowLabels == null || j >= rowLabels.length) {
-                System.err.println("View updateWordRow: rowLabels is null or index out of bounds for j=" + j);
+                Log.error("View updateWordRow: rowLabels is null or index out of bounds for j=" + j);
                 continue;
             }
 
@@ -419,11 +509,11 @@ public class View extends JFrame implements Observer {
                 letterToShow = word.charAt(j);
                 textToSet = String.valueOf(letterToShow).toUpperCase();
                 if (customBgFg == null || customBgFg.length == 0) {
-                    if (word.equals(model.getStartWord())) {
+                    if (word.equals(game.startWord)) {
                         currentBg = START_TARGET_BG;
                         currentFg = Color.BLACK;
-                    } else if (word.equals(model.getTargetWord())) {
-                        if (model.hasWon()) {
+                    } else if (word.equals(game.targetWord)) {
+                        if (game.hasWon()) {
                             currentBg = CORRECT_COLOR;
                             currentFg = Color.WHITE;
                         } else {
@@ -444,7 +534,7 @@ public class View extends JFrame implements Observer {
                 }
             }
 
-            System.out.println("View updateWordRow: Cell[" + j + "] Text='" + textToSet + "', BG=" + currentBg + ", FG=" + currentFg);
+            if (Log.DEBUG) Log.debug("View updateWordRow: Cell[" + j + "] Text='" + textToSet + "', BG=" + currentBg + ", FG=" + currentFg);
             cell.setText(textToSet);
             cell.setBackground(currentBg);
             cell.setForeground(currentFg);
@@ -452,80 +542,83 @@ public class View extends JFrame implements Observer {
     }
 
 
+    // Registered with SwingUtilities::invokeLater, so this runs on the EDT and a burst of model
+    // changes arrives as one batch: the display is refreshed once and the message reflects the
+    // most recent event.
     @Override
-    public void update(Observable o, Object arg) {
-        if (!(o instanceof Model)) return;
-        SwingUtilities.invokeLater(() -> {
-            this.currentArg = (arg instanceof String) ? (String) arg : "";
-            System.out.println("View update (EDT): Received notification. Model changed. Arg: '" + this.currentArg + "'");
-
-            updateDisplayBasedOnModel();
-
-            String message = "";
-            Color messageColor = Color.BLACK;
-
-            switch (this.currentArg) {
-                case "Error: Previous word not set!":
-                    message = "Error: Game state issue, previous word not set.";
-                    messageColor = Color.RED;
-                    break;
-                case "Invalid move!":
-                    message = "Invalid move!";
-                    messageColor = Color.RED;
-                    break;
-                case "invalid_move_feedback":
-                    if (model.isShowErrorMessage()) {
-                        message = "That move is not valid.";
-                        messageColor = Color.RED;
-                    }
-                    break;
-                case "reset":
-                case "reset_error_dict":
-                case "reset_error_dict_empty":
-                    message = "Game has been reset. Good luck!";
-                    inputField.requestFocusInWindow();
-                    break;
-                case "move_successful_feedback":
-                    if (model.hasWon()) {
-                        // Message will be handled by showWinMessage
-                    } else {
-                        message = "Move successful. Keep going!";
-                    }
-                    break;
-                case "flag_changed_showError_true": message = "Error messages will now be shown."; break;
-                case "flag_changed_showError_false": message = "Error messages will now be hidden."; break;
-                case "flag_changed_showPath_true": message = "Solution path display enabled."; break;
-                case "flag_changed_showPath_false": message = "Solution path display disabled."; break;
-                default:
-                    if (this.currentArg != null && !this.currentArg.isEmpty() &&
-                            !this.currentArg.equals("flag_changed") &&
-                            !this.currentArg.startsWith("flag_changed_") &&
-                            !this.currentArg.equals("input_error_clear_feedback") &&
-                            !this.currentArg.equals("invalid_move_no_error") &&
-                            !this.currentArg.equals("invalid_move_no_error_feedback") ){
-                        if(model.isShowErrorMessage()){
-                            message = this.currentArg;
-                            messageColor = Color.RED;
-                        }
-                    } else if (!model.hasWon() && !this.currentArg.startsWith("flag_changed")) {
-                        message = " ";
-                    }
-                    break;
+    public void modelChanged(List<ModelEvent> events) {
+        this.lastEvent = events.get(events.size() - 1);
+        Log.debug(() -> "View modelChanged (EDT): Received " + events.size() + " event(s): " + events);
+
+        // The board and the message are rendered from the same snapshot.
+        GameSnapshot game = model.getSnapshot();
+        updateDisplayBasedOnModel(game);
+
+        boolean wonByMove = false;
+        for (ModelEvent event : events) {
+            if (event.type == ModelEvent.Type.MOVE_ACCEPTED && game.hasWon()) {
+                wonByMove = true;
             }
+        }
 
-            if (! (model.hasWon() && "move_successful_feedback".equals(this.currentArg)) ) {
-                if (!message.trim().isEmpty()) {
-                    messageLabel.setText("<html><font color='" + colorToHex(messageColor) + "'>" + message + "</font></html>");
-                } else if (messageLabel.getText().startsWith("<html><font color='" + colorToHex(Color.RED))) {
-                    messageLabel.setText(" ");
+        String message = "";
+        Color messageColor = Color.BLACK;
+
+        switch (lastEvent.type) {
+            case ERROR:
+                message = "Error: Game state issue, previous word not set.";
+                messageColor = Color.RED;
+                break;
+            case MOVE_REJECTED:
+                if (game.showErrorMessage) {
+                    message = "That move is not valid.";
+                    messageColor = Color.RED;
+                } else if (!game.hasWon()) {
+                    message = " ";
                 }
-            }
+                break;
+            case GAME_RESET:
+            case GAME_RESET_ERROR:
+                message = "Game has been reset. Good luck!";
+                inputField.requestFocusInWindow();
+                break;
+            case MOVE_ACCEPTED:
+                if (!game.hasWon()) {
+                    int movesLeft = game.score().movesRemaining;
+                    message = movesLeft > 0
+                            ? "Move successful. Optimal moves left: " + movesLeft + "."
+                            : "Move successful. Keep going!";
+                }
+                // Otherwise the message is handled by showWinMessage
+                break;
+            case MOVE_UNDONE:
+                message = "Took back " + lastEvent.word.toUpperCase() + ".";
+                inputField.requestFocusInWindow();
+                break;
+            case MOVE_REDONE:
+                message = "Played " + lastEvent.word.toUpperCase() + " again.";
+                break;
+            case SHOW_ERRORS_CHANGED:
+                message = lastEvent.flag ? "Error messages will now be shown." : "Error messages will now be hidden.";
+                break;
+            case SHOW_PATH_CHANGED:
+                message = lastEvent.flag ? "Solution path display enabled." : "Solution path display disabled.";
+                break;
+            case RANDOM_WORDS_CHANGED:
+                message = lastEvent.flag ? "Random words enabled." : "Random words disabled.";
+                break;
+        }
 
-            if (model.hasWon() && "move_successful_feedback".equals(this.currentArg)) {
-                showWinMessage();
+        if (!wonByMove) {
+            if (!message.trim().isEmpty()) {
+                messageLabel.setText("<html><font color='" + colorToHex(messageColor) + "'>" + message + "</font></html>");
+            } else if (messageLabel.getText().startsWith("<html><font color='" + colorToHex(Color.RED))) {
+                messageLabel.setText(" ");
             }
-            System.out.println("View update (EDT): MessageLabel set to: '" + messageLabel.getText() + "'");
-        });
+        } else {
+            showWinMessage(game);
+        }
+        Log.debug(() -> "View modelChanged (EDT): MessageLabel set to: '" + messageLabel.getText() + "'");
     }
 
     private String colorToHex(Color color) {
@@ -534,11 +627,17 @@ public class View extends JFrame implements Observer {
     }
 
     public void showWinMessage() {
-        System.out.println("View showWinMessage: Displaying win message dialog.");
+        showWinMessage(model.getSnapshot());
+    }
+
+    private void showWinMessage(GameSnapshot game) {
+        Log.debug("View showWinMessage: Displaying win message dialog.");
+        Model.Score score = game.score();
         SwingUtilities.invokeLater(() ->
                 JOptionPane.showMessageDialog(this,
                         "Congratulations! You've successfully transformed '" +
-                                model.getStartWord() + "' into '" + model.getTargetWord() + "'!",
+                                game.startWord + "' into '" + game.targetWord + "'!\n" +
+                                "Score: " + score,
                         "Winner!",
                         JOptionPane.INFORMATION_MESSAGE)
         );
@@ -546,26 +645,43 @@ public class View extends JFrame implements Observer {
     }
 
     public void showError(String message) {
-        System.out.println("View showError: Displaying error message: '" + message + "' in messageLabel.");
+        Log.debug(() -> "View showError: Displaying error message: '" + message + "' in messageLabel.");
         SwingUtilities.invokeLater(() -> {
             messageLabel.setText("<html><font color='red'>" + message + "</font></html>");
         });
     }
 
+    public void showHint(String word) {
+        Log.debug(() -> "View showHint: Displaying hint '" + word + "' in messageLabel.");
+        SwingUtilities.invokeLater(() -> {
+            messageLabel.setText(word != null ? "Hint: try " + word.toUpperCase() : "No hint available.");
+        });
+    }
+
     public static void main(String[] args) {
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
         } catch (Exception e) {
-            e.printStackTrace();
+            Log.error("View main: Could not set the system look and feel.", e);
         }
 
         SwingUtilities.invokeLater(() -> {
-            System.out.println("View main: Creating Model, View, Controller.");
+            Log.debug("View main: Creating Model, View, Controller.");
             Model model = new Model();
+            // With -Dweaver.journal=<file>, resume the game left open last time and journal this one.
+            GameJournal journal = GameJournal.openConfigured();
+            if (journal != null) {
+                GameJournal.GameState saved = journal.getRecoveredGames().get("gui");
+                if (saved != null) {
+                    saved.restoreInto(model);
+                }
+                journal.attach("gui", model);
+                Runtime.getRuntime().addShutdownHook(new Thread(journal::close, "weaver-journal-close"));
+            }
             View view = new View(model);
             Controller controller = new Controller(model, view);
             view.setController(controller);
-            System.out.println("View main: Application started.");
+            Log.debug("View main: Application started.");
         });
     }
 }
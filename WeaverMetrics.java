@@ -0,0 +1,150 @@
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// Process-wide counters, histograms and gauges for the game's hot paths, registered as the
+// platform MBean "weaver:type=Metrics" when first used. Recording only touches striped
+// counters (LongAdder), never a lock. Like Log, collection is switched by a system property
+// read once ("-Dweaver.metrics=false" turns it off), so callers guard with
+// "if (WeaverMetrics.ENABLED)" and the JIT removes the calls when it is off.
+public final class WeaverMetrics implements WeaverMetricsMBean {
+
+    public static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("weaver.metrics", "true"));
+    public static final String OBJECT_NAME = "weaver:type=Metrics";
+    private static final WeaverMetrics INSTANCE = new WeaverMetrics();
+
+    static {
+        if (ENABLED) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+            } catch (JMException e) {
+                Log.info("WeaverMetrics: Could not register MBean " + OBJECT_NAME + ": " + e);
+            }
+        }
+    }
+
+    private final LongAdder movesAccepted = new LongAdder();
+    private final LongAdder movesRejected = new LongAdder();
+    private final LongAdder wordValidations = new LongAdder();
+    private final LongAdder neighborLookups = new LongAdder();
+    private final Histogram moveValidationNanos = new Histogram();
+    private final Histogram nodesExpanded = new Histogram();
+    private final LongAdder solutionCacheHits = new LongAdder();
+    private final LongAdder solutionCacheMisses = new LongAdder();
+    private final Histogram eventFanOutNanos = new Histogram();
+    private final LongAdder activeGames = new LongAdder();
+
+    private WeaverMetrics() {
+    }
+
+    public static WeaverMetrics get() {
+        return INSTANCE;
+    }
+
+    // Recording, called from the hot paths.
+
+    public static void recordMove(boolean accepted, long validationNanos) {
+        (accepted ? INSTANCE.movesAccepted : INSTANCE.movesRejected).increment();
+        INSTANCE.moveValidationNanos.record(validationNanos);
+    }
+
+    public static void recordWordValidation() {
+        INSTANCE.wordValidations.increment();
+    }
+
+    public static void recordNeighborLookup() {
+        INSTANCE.neighborLookups.increment();
+    }
+
+    public static void recordSolve(int expanded) {
+        INSTANCE.nodesExpanded.record(expanded);
+    }
+
+    public static void recordSolutionCache(boolean hit) {
+        (hit ? INSTANCE.solutionCacheHits : INSTANCE.solutionCacheMisses).increment();
+    }
+
+    public static void recordEventFanOut(long nanos) {
+        INSTANCE.eventFanOutNanos.record(nanos);
+    }
+
+    public static void gameStarted() {
+        INSTANCE.activeGames.increment();
+    }
+
+    public static void gameEnded() {
+        INSTANCE.activeGames.decrement();
+    }
+
+    // MBean attributes.
+
+    @Override public long getMovesAccepted() { return movesAccepted.sum(); }
+    @Override public long getMovesRejected() { return movesRejected.sum(); }
+    @Override public long getWordValidations() { return wordValidations.sum(); }
+    @Override public long getNeighborLookups() { return neighborLookups.sum(); }
+
+    @Override public long getMoveValidationCount() { return moveValidationNanos.getCount(); }
+    @Override public double getMoveValidationMeanNanos() { return moveValidationNanos.getMean(); }
+    @Override public long getMoveValidationP50Nanos() { return moveValidationNanos.getPercentile(50); }
+    @Override public long getMoveValidationP99Nanos() { return moveValidationNanos.getPercentile(99); }
+    @Override public long getMoveValidationMaxNanos() { return moveValidationNanos.getMax(); }
+
+    @Override public long getSolves() { return nodesExpanded.getCount(); }
+    @Override public double getNodesExpandedMean() { return nodesExpanded.getMean(); }
+    @Override public long getNodesExpandedP99() { return nodesExpanded.getPercentile(99); }
+    @Override public long getNodesExpandedMax() { return nodesExpanded.getMax(); }
+
+    @Override public long getSolutionCacheHits() { return solutionCacheHits.sum(); }
+    @Override public long getSolutionCacheMisses() { return solutionCacheMisses.sum(); }
+
+    @Override
+    public double getSolutionCacheHitRate() {
+        long hits = getSolutionCacheHits();
+        long total = hits + getSolutionCacheMisses();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    @Override public long getEventPublishes() { return eventFanOutNanos.getCount(); }
+    @Override public double getEventFanOutMeanNanos() { return eventFanOutNanos.getMean(); }
+    @Override public long getEventFanOutP99Nanos() { return eventFanOutNanos.getPercentile(99); }
+    @Override public long getEventFanOutMaxNanos() { return eventFanOutNanos.getMax(); }
+
+    // Dictionary gauges are read from the loaded Lexicons' latest versions on each call, so they
+    // follow runtime edits and report every dictionary, not just the last one loaded.
+    @Override
+    public Map<String, Integer> getDictionarySizes() {
+        Map<String, Integer> sizes = new TreeMap<>();
+        for (Map.Entry<String, Lexicon> loaded : Lexicon.loadedLexicons().entrySet()) {
+            sizes.put(loaded.getKey(), loaded.getValue().size());
+        }
+        return sizes;
+    }
+
+    @Override
+    public int getDictionarySize() {
+        int total = 0;
+        for (Lexicon lexicon : Lexicon.loadedLexicons().values()) {
+            total += lexicon.size();
+        }
+        return total;
+    }
+
+    @Override public long getActiveGames() { return activeGames.sum(); }
+
+    // Clears counters and histograms; the gauges describe current state and are kept.
+    @Override
+    public void reset() {
+        movesAccepted.reset();
+        movesRejected.reset();
+        wordValidations.reset();
+        neighborLookups.reset();
+        moveValidationNanos.reset();
+        nodesExpanded.reset();
+        solutionCacheHits.reset();
+        solutionCacheMisses.reset();
+        eventFanOutNanos.reset();
+    }
+}
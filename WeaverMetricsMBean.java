@@ -0,0 +1,38 @@
+import java.util.Map;
+
+// Management interface for WeaverMetrics, visible in JConsole/VisualVM under "weaver:type=Metrics".
+// Latencies are in nanoseconds; percentiles are power-of-two bucket estimates.
+public interface WeaverMetricsMBean {
+
+    long getMovesAccepted();
+    long getMovesRejected();
+    long getWordValidations();
+    long getNeighborLookups();
+
+    long getMoveValidationCount();
+    double getMoveValidationMeanNanos();
+    long getMoveValidationP50Nanos();
+    long getMoveValidationP99Nanos();
+    long getMoveValidationMaxNanos();
+
+    long getSolves();
+    double getNodesExpandedMean();
+    long getNodesExpandedP99();
+    long getNodesExpandedMax();
+
+    long getSolutionCacheHits();
+    long getSolutionCacheMisses();
+    double getSolutionCacheHitRate();
+
+    long getEventPublishes();
+    double getEventFanOutMeanNanos();
+    long getEventFanOutP99Nanos();
+    long getEventFanOutMaxNanos();
+
+    // Words in each loaded dictionary, keyed by file path, and their total.
+    Map<String, Integer> getDictionarySizes();
+    int getDictionarySize();
+    long getActiveGames();
+
+    void reset();
+}
@@ -0,0 +1,18 @@
+import java.util.List;
+
+// Read-only word list behind the game's dictionary queries. PackedDictionary is the fixed
+// 4-letter bitset the word graph is built from; DawgDictionary holds words of any length in a
+// minimised trie. Words are lower-case a-z; lookups are case-insensitive. In patterns, '?' or
+// '.' matches any single letter.
+public interface WordDictionary {
+
+    boolean contains(String word);
+
+    // True when at least one word starts with the prefix (the empty prefix included).
+    boolean hasPrefix(String prefix);
+
+    // All words matching the pattern, in alphabetical order.
+    List<String> matches(String pattern);
+
+    int size();
+}
@@ -0,0 +1,547 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Immutable adjacency structure over the 4-letter dictionary.
+// Every word gets an int id and a sorted int[] of the ids one letter away. It is built once
+// after the dictionary is loaded so that neighbour enumeration and move checks never generate
+// candidate strings again. In a freshly built graph ids follow alphabetical order.
+//
+// withWord/withoutWord derive a new graph version for runtime dictionary changes. Ids stay
+// stable across versions: added words are appended (a word that was removed earlier gets its
+// old id back) and removed words leave an empty slot (no neighbours, no component), so size() is
+// the number of id slots and wordCount() the number of live words. Per-word and per-component
+// data live in paged arrays (see PagedIntArray), so a new version shares every page, neighbour
+// row and component member list it did not change with the old one: a change costs the word's
+// (at most 100) neighbour rows, the pages they sit on and the members of the components that
+// merged or split off, not a copy of the whole graph. Old versions are never modified, so
+// anyone still holding one keeps a consistent snapshot.
+public class WordGraph {
+
+    private static final int[] NO_NEIGHBORS = new int[0];
+    private static final int[] NO_WORDS = new int[0];
+
+    private final PackedDictionary dictionary;
+    private final PagedIntArray packedWords;
+    private final PagedArray<String> words;
+    private final PagedArray<int[]> neighbors;
+    // Packed word to id, including removed words (idOf checks the dictionary first): the words
+    // the graph was built with, in alphabetical order so that their index is their id, and the
+    // words added since, sorted by packed value, with their ids.
+    private final int[] basePacked;
+    private final int[] addedPacked;
+    private final int[] addedIds;
+    // Connected components: component id per word (-1 for removed words), the member ids of each
+    // component and each word's position in its component's member list. A component emptied by
+    // later changes keeps its id with no members.
+    private final PagedIntArray componentOf;
+    private final PagedIntArray memberIndex;
+    private final PagedArray<PagedIntArray> componentMembers;
+    // Live words whose component has at least two words, i.e. valid starts for a solvable puzzle.
+    private final int pairableWordCount;
+
+    public WordGraph(PackedDictionary dictionary) {
+        this(dictionary, dictionary.toSortedArray());
+    }
+
+    private WordGraph(PackedDictionary dictionary, int[] packedWords) {
+        this(dictionary, packedWords, buildNeighbors(dictionary, packedWords));
+    }
+
+    // Used by DictionarySnapshot to restore a graph without recomputing adjacency.
+    // packedWords must be sorted and neighbors[id] must hold sorted ids.
+    WordGraph(int[] packedWords, int[][] neighbors) {
+        this(toDictionary(packedWords), packedWords, neighbors);
+    }
+
+    private WordGraph(PackedDictionary dictionary, int[] packedWords, int[][] neighbors) {
+        this.dictionary = dictionary.freeze();
+        this.packedWords = PagedIntArray.of(packedWords);
+        this.neighbors = PagedArray.of(neighbors);
+        this.basePacked = packedWords;
+        this.addedPacked = NO_WORDS;
+        this.addedIds = NO_WORDS;
+        String[] decoded = new String[packedWords.length];
+        for (int id = 0; id < packedWords.length; id++) {
+            decoded[id] = PackedWord.decode(packedWords[id]);
+        }
+        words = PagedArray.of(decoded);
+
+        // Label components with one BFS sweep; the BFS queue doubles as the grouped member list.
+        int[] component = new int[packedWords.length];
+        int[] index = new int[packedWords.length];
+        Arrays.fill(component, -1);
+        int[] queue = new int[packedWords.length];
+        List<PagedIntArray> members = new ArrayList<>();
+        int pairable = 0;
+        int tail = 0;
+        for (int root = 0; root < packedWords.length; root++) {
+            if (component[root] >= 0) continue;
+            int label = members.size();
+            int start = tail;
+            component[root] = label;
+            queue[tail++] = root;
+            for (int head = start; head < tail; head++) {
+                index[queue[head]] = head - start;
+                for (int neighbor : neighbors[queue[head]]) {
+                    if (component[neighbor] < 0) {
+                        component[neighbor] = label;
+                        queue[tail++] = neighbor;
+                    }
+                }
+            }
+            members.add(PagedIntArray.of(Arrays.copyOfRange(queue, start, tail)));
+            if (tail - start > 1) pairable += tail - start;
+        }
+        componentOf = PagedIntArray.of(component);
+        memberIndex = PagedIntArray.of(index);
+        componentMembers = PagedArray.of(members.toArray(new PagedIntArray[0]));
+        pairableWordCount = pairable;
+    }
+
+    // A derived version; every structure is already built by withWord or withoutWord.
+    private WordGraph(PackedDictionary dictionary, PagedIntArray packedWords, PagedArray<String> words,
+                      PagedArray<int[]> neighbors, int[] basePacked, int[] addedPacked, int[] addedIds,
+                      PagedIntArray componentOf, PagedIntArray memberIndex,
+                      PagedArray<PagedIntArray> componentMembers, int pairableWordCount) {
+        this.dictionary = dictionary.freeze();
+        this.packedWords = packedWords;
+        this.words = words;
+        this.neighbors = neighbors;
+        this.basePacked = basePacked;
+        this.addedPacked = addedPacked;
+        this.addedIds = addedIds;
+        this.componentOf = componentOf;
+        this.memberIndex = memberIndex;
+        this.componentMembers = componentMembers;
+        this.pairableWordCount = pairableWordCount;
+    }
+
+    private static int[][] buildNeighbors(PackedDictionary dictionary, int[] packedWords) {
+        int[][] neighbors = new int[packedWords.length][];
+        int[] scratch = new int[PackedWord.LENGTH * 25];
+        for (int id = 0; id < packedWords.length; id++) {
+            int packed = packedWords[id];
+            int count = 0;
+            for (int i = 0; i < PackedWord.LENGTH; i++) {
+                int originalLetter = PackedWord.letterAt(packed, i);
+                for (int letter = 0; letter < 26; letter++) {
+                    if (letter == originalLetter) continue;
+                    int candidate = PackedWord.withLetter(packed, i, letter);
+                    if (dictionary.contains(candidate)) {
+                        scratch[count++] = Arrays.binarySearch(packedWords, candidate);
+                    }
+                }
+            }
+            if (count == 0) {
+                neighbors[id] = NO_NEIGHBORS;
+            } else {
+                neighbors[id] = Arrays.copyOf(scratch, count);
+                Arrays.sort(neighbors[id]);
+            }
+        }
+        return neighbors;
+    }
+
+    private static PackedDictionary toDictionary(int[] packedWords) {
+        PackedDictionary dictionary = new PackedDictionary();
+        for (int packed : packedWords) {
+            dictionary.add(packed);
+        }
+        return dictionary;
+    }
+
+    // Returns a version of this graph that also contains the word, or this graph if the word is
+    // already present or not a valid 4-letter word.
+    public WordGraph withWord(String word) {
+        int packed = PackedWord.encode(word);
+        if (packed == PackedWord.INVALID || dictionary.contains(packed)) return this;
+
+        PackedDictionary newDictionary = new PackedDictionary(dictionary);
+        newDictionary.add(packed);
+        PagedArray.Editor<int[]> newNeighbors = neighbors.edit();
+        PagedIntArray.Editor newComponentOf = componentOf.edit();
+        PagedIntArray.Editor newMemberIndex = memberIndex.edit();
+        PagedIntArray newPackedWords = packedWords;
+        PagedArray<String> newWords = words;
+        int[] newAddedPacked = addedPacked;
+        int[] newAddedIds = addedIds;
+        // A word removed earlier gets its old slot back; a new word is appended.
+        int id = slotOf(packed);
+        if (id < 0) {
+            PagedIntArray.Editor packedEditor = packedWords.edit();
+            id = packedEditor.append(packed);
+            newPackedWords = packedEditor.build();
+            PagedArray.Editor<String> wordEditor = words.edit();
+            wordEditor.append(PackedWord.decode(packed));
+            newWords = wordEditor.build();
+            newNeighbors.append(NO_NEIGHBORS);
+            newComponentOf.append(-1);
+            newMemberIndex.append(0);
+            int position = -Arrays.binarySearch(addedPacked, packed) - 1;
+            newAddedPacked = insertAt(addedPacked, position, packed);
+            newAddedIds = insertAt(addedIds, position, id);
+        }
+
+        // Probe the 100 one-letter variants and add the word to each neighbour's sorted row.
+        int[] adjacent = new int[PackedWord.LENGTH * 25];
+        int count = 0;
+        for (int i = 0; i < PackedWord.LENGTH; i++) {
+            int originalLetter = PackedWord.letterAt(packed, i);
+            for (int letter = 0; letter < 26; letter++) {
+                if (letter == originalLetter) continue;
+                int neighbor = idOf(PackedWord.withLetter(packed, i, letter));
+                if (neighbor >= 0) adjacent[count++] = neighbor;
+            }
+        }
+        adjacent = Arrays.copyOf(adjacent, count);
+        Arrays.sort(adjacent);
+        newNeighbors.set(id, count == 0 ? NO_NEIGHBORS : adjacent);
+        for (int neighbor : adjacent) {
+            int[] row = neighbors(neighbor);
+            newNeighbors.set(neighbor, insertAt(row, -Arrays.binarySearch(row, id) - 1, id));
+        }
+
+        // The new word joins every component it touches. The largest keeps its id and the
+        // others are relabelled into it, so the cost is proportional to the smaller ones.
+        int[] touched = new int[count];
+        int touchedCount = 0;
+        int largest = -1;
+        for (int neighbor : adjacent) {
+            int component = componentOf(neighbor);
+            boolean seen = false;
+            for (int i = 0; i < touchedCount && !seen; i++) {
+                seen = touched[i] == component;
+            }
+            if (seen) continue;
+            touched[touchedCount++] = component;
+            if (largest < 0 || componentSize(component) > componentSize(largest)) {
+                largest = component;
+            }
+        }
+        PagedArray.Editor<PagedIntArray> newMembers = componentMembers.edit();
+        int pairable = pairableWordCount;
+        if (largest < 0) {
+            newComponentOf.set(id, newMembers.append(PagedIntArray.of(new int[]{id})));
+            newMemberIndex.set(id, 0);
+        } else {
+            // Every word of a touched component is pairable now, as is the new word.
+            pairable++;
+            PagedIntArray.Editor row = componentMembers.get(largest).edit();
+            if (row.length() == 1) pairable++;
+            for (int i = 0; i < touchedCount; i++) {
+                int component = touched[i];
+                if (component == largest) continue;
+                PagedIntArray merged = componentMembers.get(component);
+                if (merged.length() == 1) pairable++;
+                for (int k = 0; k < merged.length(); k++) {
+                    int member = merged.get(k);
+                    newComponentOf.set(member, largest);
+                    newMemberIndex.set(member, row.append(member));
+                }
+                newMembers.set(component, PagedIntArray.EMPTY);
+            }
+            newComponentOf.set(id, largest);
+            newMemberIndex.set(id, row.append(id));
+            newMembers.set(largest, row.build());
+        }
+        return new WordGraph(newDictionary, newPackedWords, newWords, newNeighbors.build(), basePacked,
+                newAddedPacked, newAddedIds, newComponentOf.build(), newMemberIndex.build(), newMembers.build(), pairable);
+    }
+
+    // Returns a version of this graph without the word, or this graph if it is not present.
+    public WordGraph withoutWord(String word) {
+        int id = idOf(word);
+        if (id < 0) return this;
+
+        PackedDictionary newDictionary = new PackedDictionary(dictionary);
+        newDictionary.remove(packedAt(id));
+        int[] adjacent = neighbors(id);
+        PagedArray.Editor<int[]> newNeighbors = neighbors.edit();
+        newNeighbors.set(id, NO_NEIGHBORS);
+        for (int neighbor : adjacent) {
+            int[] row = neighbors(neighbor);
+            newNeighbors.set(neighbor, row.length == 1 ? NO_NEIGHBORS : removeAt(row, Arrays.binarySearch(row, id)));
+        }
+
+        // Pieces cut off from the word's component become new components; the rest keeps its id.
+        int component = componentOf(id);
+        int before = componentSize(component);
+        PagedIntArray.Editor newComponentOf = componentOf.edit();
+        PagedIntArray.Editor newMemberIndex = memberIndex.edit();
+        PagedArray.Editor<PagedIntArray> newMembers = componentMembers.edit();
+        PagedIntArray.Editor remaining = componentMembers.get(component).edit();
+        removeMember(remaining, newMemberIndex, id);
+        newComponentOf.set(id, -1);
+        int pairable = pairableWordCount - (before > 1 ? before : 0);
+        for (int[] piece : splitOffPieces(newNeighbors, adjacent)) {
+            int pieceComponent = newMembers.append(PagedIntArray.of(piece));
+            for (int k = 0; k < piece.length; k++) {
+                removeMember(remaining, newMemberIndex, piece[k]);
+                newComponentOf.set(piece[k], pieceComponent);
+                newMemberIndex.set(piece[k], k);
+            }
+            if (piece.length > 1) pairable += piece.length;
+        }
+        if (remaining.length() > 1) pairable += remaining.length();
+        newMembers.set(component, remaining.build());
+        return new WordGraph(newDictionary, packedWords, words, newNeighbors.build(), basePacked,
+                addedPacked, addedIds, newComponentOf.build(), newMemberIndex.build(), newMembers.build(), pairable);
+    }
+
+    // Removes the word from its component's member list by moving the last member into its place.
+    private static void removeMember(PagedIntArray.Editor members, PagedIntArray.Editor memberIndex, int id) {
+        int position = memberIndex.get(id);
+        int moved = members.get(members.length() - 1);
+        members.swapRemove(position);
+        if (moved != id) memberIndex.set(moved, position);
+    }
+
+    // After a word is removed, its former neighbours may no longer be connected. Runs one BFS
+    // per neighbour in lock step, merging searches that meet. A group of searches that runs out
+    // of words while another group is still going is a piece cut off from the rest; the last
+    // group left keeps the original component. Only the cut-off pieces are returned, so the
+    // work is proportional to their size rather than to the size of the whole component.
+    private static List<int[]> splitOffPieces(PagedArray.Editor<int[]> graph, int[] sources) {
+        List<int[]> pieces = new ArrayList<>();
+        int k = sources.length;
+        if (k < 2) return pieces;
+        Map<Integer, Integer> owner = new HashMap<>();
+        int[][] queues = new int[k][];
+        int[] heads = new int[k];
+        int[] tails = new int[k];
+        int[] group = new int[k];
+        boolean[] settled = new boolean[k];
+        boolean[] running = new boolean[k];
+        boolean[] open = new boolean[k];
+        for (int i = 0; i < k; i++) {
+            queues[i] = new int[8];
+            queues[i][0] = sources[i];
+            tails[i] = 1;
+            group[i] = i;
+            owner.put(sources[i], i);
+        }
+        while (true) {
+            for (int i = 0; i < k; i++) {
+                if (settled[i] || heads[i] == tails[i]) continue;
+                int current = queues[i][heads[i]++];
+                for (int neighbor : graph.get(current)) {
+                    Integer other = owner.get(neighbor);
+                    if (other == null) {
+                        owner.put(neighbor, i);
+                        if (tails[i] == queues[i].length) queues[i] = Arrays.copyOf(queues[i], tails[i] * 2);
+                        queues[i][tails[i]++] = neighbor;
+                    } else {
+                        union(group, i, other);
+                    }
+                }
+            }
+            // Per group: is any of its searches still running?
+            int activeGroups = 0;
+            int openGroups = 0;
+            Arrays.fill(running, false);
+            Arrays.fill(open, false);
+            for (int i = 0; i < k; i++) {
+                if (settled[i]) continue;
+                int root = find(group, i);
+                if (!open[root]) {
+                    open[root] = true;
+                    openGroups++;
+                }
+                if (heads[i] < tails[i] && !running[root]) {
+                    running[root] = true;
+                    activeGroups++;
+                }
+            }
+            if (openGroups <= 1) return pieces;
+            if (activeGroups == openGroups) continue;
+            // Exhausted groups are complete pieces. If every group is exhausted, the largest one
+            // stays with the original component.
+            int keep = -1;
+            if (activeGroups == 0) {
+                int keepSize = -1;
+                for (int root = 0; root < k; root++) {
+                    if (!open[root]) continue;
+                    int size = groupSize(group, tails, settled, root);
+                    if (size > keepSize) {
+                        keepSize = size;
+                        keep = root;
+                    }
+                }
+            }
+            for (int root = 0; root < k; root++) {
+                if (!open[root] || running[root] || root == keep) continue;
+                int[] piece = new int[groupSize(group, tails, settled, root)];
+                int length = 0;
+                for (int i = 0; i < k; i++) {
+                    if (settled[i] || find(group, i) != root) continue;
+                    System.arraycopy(queues[i], 0, piece, length, tails[i]);
+                    length += tails[i];
+                }
+                for (int i = 0; i < k; i++) {
+                    if (!settled[i] && find(group, i) == root) settled[i] = true;
+                }
+                pieces.add(piece);
+            }
+            if (activeGroups == 0) return pieces;
+        }
+    }
+
+    private static int groupSize(int[] group, int[] tails, boolean[] settled, int root) {
+        int size = 0;
+        for (int i = 0; i < group.length; i++) {
+            if (!settled[i] && find(group, i) == root) size += tails[i];
+        }
+        return size;
+    }
+
+    private static int find(int[] group, int i) {
+        while (group[i] != i) {
+            group[i] = group[group[i]];
+            i = group[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] group, int a, int b) {
+        int rootA = find(group, a);
+        int rootB = find(group, b);
+        if (rootA != rootB) {
+            group[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+
+
+    private static int[] insertAt(int[] array, int index, int value) {
+        int[] result = new int[array.length + 1];
+        System.arraycopy(array, 0, result, 0, index);
+        result[index] = value;
+        System.arraycopy(array, index, result, index + 1, array.length - index);
+        return result;
+    }
+
+    private static int[] removeAt(int[] array, int index) {
+        int[] result = new int[array.length - 1];
+        System.arraycopy(array, 0, result, 0, index);
+        System.arraycopy(array, index + 1, result, index, array.length - index - 1);
+        return result;
+    }
+
+    // The bitset of the graph's live words; frozen, so callers cannot change this version.
+    public PackedDictionary getDictionary() {
+        return dictionary;
+    }
+
+    // Number of id slots, including removed words; size arrays indexed by id with this.
+    public int size() {
+        return packedWords.length();
+    }
+
+    public int wordCount() {
+        return dictionary.size();
+    }
+
+    // False for ids whose word has been removed.
+    public boolean isLive(int id) {
+        return id >= 0 && id < componentOf.length() && componentOf.get(id) >= 0;
+    }
+
+    // Returns -1 when the word is not in the dictionary.
+    public int idOf(String word) {
+        return idOf(PackedWord.encode(word));
+    }
+
+    public int idOf(int packed) {
+        if (!dictionary.contains(packed)) return -1;
+        return slotOf(packed);
+    }
+
+    // The id the word has or had in this graph, or -1 if it never had one.
+    private int slotOf(int packed) {
+        int index = Arrays.binarySearch(basePacked, packed);
+        if (index >= 0) return index;
+        index = Arrays.binarySearch(addedPacked, packed);
+        return index >= 0 ? addedIds[index] : -1;
+    }
+
+    public String wordAt(int id) {
+        return words.get(id);
+    }
+
+    public int packedAt(int id) {
+        return packedWords.get(id);
+    }
+
+    // The returned array is shared; callers must not modify it.
+    public int[] neighbors(int id) {
+        return neighbors.get(id);
+    }
+
+    public int degree(int id) {
+        return neighbors.get(id).length;
+    }
+
+    public boolean areAdjacent(int fromId, int toId) {
+        if (fromId < 0 || toId < 0) return false;
+        return Arrays.binarySearch(neighbors.get(fromId), toId) >= 0;
+    }
+
+    // Number of component ids; after words are removed some of them may be empty.
+    public int componentCount() {
+        return componentMembers.length();
+    }
+
+    public int componentOf(int id) {
+        return id >= 0 ? componentOf.get(id) : -1;
+    }
+
+    public int componentSize(int component) {
+        return componentMembers.get(component).length();
+    }
+
+    // A ladder exists exactly when both words are in the dictionary and share a component.
+    public boolean isConnected(int fromId, int toId) {
+        if (fromId < 0 || toId < 0) return false;
+        int component = componentOf.get(fromId);
+        return component >= 0 && component == componentOf.get(toId);
+    }
+
+    // True when the word is live in both versions and its component has exactly the same members
+    // (the versions share its member list), so every distance and ladder within it is unchanged.
+    public boolean hasSameComponent(WordGraph other, int id) {
+        if (!isLive(id) || !other.isLive(id)) return false;
+        return componentMembers.get(componentOf.get(id)) == other.componentMembers.get(other.componentOf.get(id));
+    }
+
+    // Number of words that have at least one other word reachable from them.
+    public int pairableWordCount() {
+        return pairableWordCount;
+    }
+
+    // A uniformly random word that has at least one other word reachable from it, or -1 if there
+    // is none. Draws over the id slots and skips removed and isolated words.
+    public int randomPairableWord(Random random) {
+        if (pairableWordCount == 0) return -1;
+        while (true) {
+            int id = random.nextInt(size());
+            if (isLive(id) && componentSize(componentOf.get(id)) > 1) return id;
+        }
+    }
+
+    // A uniformly random live word, or -1 if the dictionary is empty.
+    public int randomWord(Random random) {
+        if (wordCount() == 0) return -1;
+        while (true) {
+            int id = random.nextInt(size());
+            if (isLive(id)) return id;
+        }
+    }
+
+    // The index-th word of the given component.
+    public int componentMember(int component, int index) {
+        return componentMembers.get(component).get(index);
+    }
+}
@@ -0,0 +1,88 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Immutable list of the words played in a game. Every version is a prefix of a shared backing
+// array, so taking a snapshot, dropping the last word (undo) and growing back to a longer
+// version that shares the array (redo) are all O(1) and copy nothing.
+//
+// Appending writes into the shared array in place when no other version has already used that
+// slot; the slot is claimed atomically, so two versions can never write the same index. When the
+// slot is taken (e.g. appending after an undo) or the array is full, the prefix is copied into a
+// new array of twice the size, so a run of plain appends is amortised O(1).
+public final class WordHistory extends AbstractList<String> implements RandomAccess {
+
+    private static final int INITIAL_CAPACITY = 8;
+    // No room, so the first append of every game allocates that game's own array.
+    private static final WordHistory EMPTY = new WordHistory(new Buffer(new String[0]), 0);
+
+    private static final class Buffer {
+        final String[] words;
+        // Number of slots claimed by some version; slots below it never change again.
+        final AtomicInteger used = new AtomicInteger();
+
+        Buffer(String[] words) {
+            this.words = words;
+        }
+    }
+
+    private final Buffer buffer;
+    private final int size;
+
+    private WordHistory(Buffer buffer, int size) {
+        this.buffer = buffer;
+        this.size = size;
+    }
+
+    public static WordHistory empty() {
+        return EMPTY;
+    }
+
+    public WordHistory append(String word) {
+        if (word == null) throw new NullPointerException("word");
+        if (size < buffer.words.length && buffer.used.compareAndSet(size, size + 1)) {
+            buffer.words[size] = word;
+            return new WordHistory(buffer, size + 1);
+        }
+        String[] words = Arrays.copyOf(buffer.words, Math.max(INITIAL_CAPACITY, size * 2));
+        Arrays.fill(words, size, words.length, null);
+        words[size] = word;
+        Buffer copy = new Buffer(words);
+        copy.used.set(size + 1);
+        return new WordHistory(copy, size + 1);
+    }
+
+    // The first length words, sharing this history's storage.
+    public WordHistory prefix(int length) {
+        if (length < 0 || length > size) {
+            throw new IndexOutOfBoundsException("Prefix length " + length + " of a history of " + size);
+        }
+        if (length == size) return this;
+        return length == 0 ? EMPTY : new WordHistory(buffer, length);
+    }
+
+    // This history without its last word.
+    public WordHistory withoutLast() {
+        if (size == 0) throw new IllegalStateException("History is empty");
+        return prefix(size - 1);
+    }
+
+    // Last word, or null when empty.
+    public String last() {
+        return size == 0 ? null : buffer.words[size - 1];
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " of a history of " + size);
+        }
+        return buffer.words[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,52 @@
+package weaver.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Loading a dictionary, i.e. what Lexicon does on first use: from the text file (parse, build
+// the word graph and write the binary snapshot) and from an up-to-date snapshot.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class DictionaryLoadBenchmark {
+
+    @Param({"real", "synthetic"})
+    public String dictionary;
+
+    private String filename;
+    private File snapshot;
+
+    @Setup
+    public void setUp() throws IOException {
+        filename = "real".equals(dictionary) ? Weaver.realDictionary() : Weaver.syntheticDictionary(Weaver.SEED).getPath();
+        snapshot = Weaver.snapshotFileFor(new File(filename));
+    }
+
+    // Deleting the snapshot is cheap next to a parse, so it barely moves the result.
+    @Benchmark
+    public Object loadDictionaryFromText() {
+        snapshot.delete();
+        return Weaver.reloadLexicon(filename);
+    }
+
+    @Benchmark
+    public Object loadDictionaryFromSnapshot() {
+        return Weaver.reloadLexicon(filename);
+    }
+}
@@ -0,0 +1,156 @@
+package weaver.bench;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Hot paths of one game: word and move validation, letter feedback, moves and the solver.
+// Each combination of dictionary (the real dictionary.txt or a synthetic one of ~80,000 words)
+// and puzzle (a short ladder, the longest ladder the generator finds, or no ladder at all) is a
+// separate parameter set, so a regression shows up against the case it affects.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ModelBenchmark {
+
+    private static final long SEED = Weaver.SEED;
+    private static final int EASY_MAX_LENGTH = 3;
+    private static final int HARD_MAX_LENGTH = 30;
+
+    @Param({"real", "synthetic"})
+    public String dictionary;
+
+    @Param({"easy", "hard", "unreachable"})
+    public String puzzle;
+
+    private Object model;
+    private String start;
+    private String target;
+    // Moves to play, in order, for makeMove; a shortest ladder, or a walk away from the start
+    // and back when the puzzle has none.
+    private String[] moves;
+    private int nextMove;
+    private String[] guesses;
+    private int nextGuess;
+
+    @Setup
+    public void setUp() throws IOException {
+        String filename = "real".equals(dictionary) ? Weaver.realDictionary() : Weaver.syntheticDictionary(SEED).getPath();
+        Object lexicon = Weaver.loadLexicon(filename);
+        model = Weaver.newModel(lexicon);
+        if (Weaver.dictionarySize(model) < 2) {
+            throw new IllegalStateException("No usable dictionary at " + filename);
+        }
+
+        String[] words = pickPuzzle(lexicon);
+        start = words[0];
+        target = words[1];
+        Weaver.initializeGame(model, start, target);
+        Weaver.setShowPath(model, true);
+
+        List<String> ladder = Weaver.shortestLadder(model, start, target);
+        if (ladder != null && ladder.size() > 1) {
+            moves = ladder.subList(1, ladder.size()).toArray(new String[0]);
+        } else {
+            // No ladder: step to a neighbour of the start and back.
+            String neighbour = Weaver.findNeighbors(model, start).get(0);
+            moves = new String[]{neighbour, start, neighbour, start, neighbour, start, neighbour, start};
+        }
+        // A mix of guesses: the target, the start, a ladder word and a non-word.
+        guesses = new String[]{target, start, moves[0], "qzxj"};
+    }
+
+    private String[] pickPuzzle(Object lexicon) {
+        switch (puzzle) {
+            case "easy": {
+                String[] words = Weaver.generatePuzzle(model, 1, EASY_MAX_LENGTH, SEED);
+                if (words == null) throw new IllegalStateException("No easy puzzle in " + dictionary);
+                return words;
+            }
+            case "hard":
+                for (int length = HARD_MAX_LENGTH; length > 0; length--) {
+                    String[] words = Weaver.generatePuzzle(model, length, length, SEED);
+                    if (words != null) return words;
+                }
+                throw new IllegalStateException("No puzzle in " + dictionary);
+            case "unreachable": {
+                String from = Weaver.generatePuzzle(model, 1, EASY_MAX_LENGTH, SEED)[0];
+                String to = Weaver.unreachableFrom(model, lexicon, from);
+                if (to == null) throw new IllegalStateException("Every word in " + dictionary + " is connected");
+                return new String[]{from, to};
+            }
+            default:
+                throw new IllegalArgumentException("Unknown puzzle: " + puzzle);
+        }
+    }
+
+    @Benchmark
+    public boolean isValidWord() {
+        return Weaver.isValidWord(model, target);
+    }
+
+    @Benchmark
+    public boolean isValidWordRejected() {
+        return Weaver.isValidWord(model, "qzxj");
+    }
+
+    @Benchmark
+    public boolean isValidMove() {
+        return Weaver.isValidMove(model, start, moves[0]);
+    }
+
+    @Benchmark
+    public Object checkGuess() {
+        String guess = guesses[nextGuess];
+        nextGuess = (nextGuess + 1) % guesses.length;
+        return Weaver.checkGuess(model, guess);
+    }
+
+    // The packed equivalent of checkGuess; expected to allocate nothing (see -prof gc).
+    @Benchmark
+    public int scoreGuess() {
+        String guess = guesses[nextGuess];
+        nextGuess = (nextGuess + 1) % guesses.length;
+        return Weaver.scoreGuess(model, guess);
+    }
+
+    // Plays the ladder one move per call and starts the puzzle again once it is won, so the
+    // occasional reset is amortised over the ladder's length.
+    @Benchmark
+    public boolean makeMove() {
+        if (nextMove == moves.length || Weaver.hasWon(model)) {
+            Weaver.initializeGame(model, start, target);
+            nextMove = 0;
+        }
+        return Weaver.makeMove(model, moves[nextMove++]);
+    }
+
+    // The answer usually comes from the Lexicon's solution cache, as it does in a game.
+    @Benchmark
+    public List<?> getDisplayableSolutionPath() {
+        return Weaver.solutionPath(model);
+    }
+
+    // Forces a fresh search on every call.
+    @Benchmark
+    public void getDisplayableSolutionPathUncached(Blackhole blackhole) {
+        Weaver.invalidateSolutionCache(model);
+        blackhole.consume(Weaver.solutionPath(model));
+    }
+}
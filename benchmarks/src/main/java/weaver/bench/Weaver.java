@@ -0,0 +1,313 @@
+package weaver.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+
+// Access to the game classes, which live in the unnamed package. JMH refuses benchmarks in the
+// unnamed package and named packages cannot refer to it, so the benchmarks call the game through
+// method handles. The handles are static final, so the JIT treats them as constants and inlines
+// the target just as it would a direct call.
+final class Weaver {
+
+    static final long SEED = 42L;
+
+    private static final MethodHandle LOAD;
+    private static final MethodHandle RELOAD;
+    private static final MethodHandle NEW_MODEL;
+    private static final MethodHandle IS_VALID_WORD;
+    private static final MethodHandle IS_VALID_MOVE;
+    private static final MethodHandle CHECK_GUESS;
+    private static final MethodHandle SCORE_GUESS;
+    private static final MethodHandle MAKE_MOVE;
+    private static final MethodHandle HAS_WON;
+    private static final MethodHandle INITIALIZE_GAME;
+    private static final MethodHandle SET_SHOW_PATH;
+    private static final MethodHandle SOLUTION_PATH;
+    private static final MethodHandle SOLUTION_CACHE;
+    private static final MethodHandle INVALIDATE;
+    private static final MethodHandle GENERATE_PUZZLE;
+    private static final MethodHandle SHORTEST_LADDERS;
+    private static final MethodHandle COMPONENT_OF;
+    private static final MethodHandle FIND_NEIGHBORS;
+    private static final MethodHandle DICTIONARY_SIZE;
+    private static final MethodHandle LEXICON_GRAPH;
+    private static final MethodHandle WORD_AT;
+    private static final MethodHandle PUZZLE_START;
+    private static final MethodHandle PUZZLE_TARGET;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            ClassLoader loader = Weaver.class.getClassLoader();
+            Class<?> lexicon = Class.forName("Lexicon", true, loader);
+            Class<?> model = Class.forName("Model", true, loader);
+            Class<?> puzzle = Class.forName("Model$Puzzle", true, loader);
+            Class<?> feedback = Class.forName("Model$LetterFeedback", true, loader);
+            Class<?> cache = Class.forName("SolutionCache", true, loader);
+            Class<?> ladders = Class.forName("ShortestLadders", true, loader);
+            Class<?> graph = Class.forName("WordGraph", true, loader);
+
+            LOAD = lookup.findStatic(lexicon, "load", MethodType.methodType(lexicon, String.class))
+                    .asType(MethodType.methodType(Object.class, String.class));
+            RELOAD = lookup.findStatic(lexicon, "reload", MethodType.methodType(lexicon, String.class))
+                    .asType(MethodType.methodType(Object.class, String.class));
+            NEW_MODEL = lookup.findConstructor(model, MethodType.methodType(void.class, lexicon))
+                    .asType(MethodType.methodType(Object.class, Object.class));
+            IS_VALID_WORD = virtual(lookup, model, "isValidWord", boolean.class, String.class);
+            IS_VALID_MOVE = virtual(lookup, model, "isValidMove", boolean.class, String.class, String.class);
+            CHECK_GUESS = lookup.findVirtual(model, "checkGuess", MethodType.methodType(feedback.arrayType(), String.class))
+                    .asType(MethodType.methodType(Object.class, Object.class, String.class));
+            SCORE_GUESS = virtual(lookup, model, "scoreGuess", int.class, String.class);
+            MAKE_MOVE = virtual(lookup, model, "makeMove", boolean.class, String.class);
+            HAS_WON = virtual(lookup, model, "hasWon", boolean.class);
+            INITIALIZE_GAME = virtual(lookup, model, "initializeGame", void.class, String.class, String.class);
+            SET_SHOW_PATH = virtual(lookup, model, "setShowPath", void.class, boolean.class);
+            SOLUTION_PATH = virtual(lookup, model, "getDisplayableSolutionPath", List.class);
+            SOLUTION_CACHE = lookup.findVirtual(model, "getSolutionCache", MethodType.methodType(cache))
+                    .asType(MethodType.methodType(Object.class, Object.class));
+            INVALIDATE = virtual(lookup, cache, "invalidate", void.class);
+            GENERATE_PUZZLE = lookup.findVirtual(model, "generatePuzzle", MethodType.methodType(puzzle, int.class, int.class, long.class))
+                    .asType(MethodType.methodType(Object.class, Object.class, int.class, int.class, long.class));
+            SHORTEST_LADDERS = lookup.findVirtual(model, "getShortestLadders", MethodType.methodType(ladders, String.class, String.class))
+                    .asType(MethodType.methodType(Iterable.class, Object.class, String.class, String.class));
+            COMPONENT_OF = virtual(lookup, model, "componentOf", int.class, String.class);
+            FIND_NEIGHBORS = virtual(lookup, model, "findNeighbors", List.class, String.class);
+            DICTIONARY_SIZE = virtual(lookup, model, "getDictionarySize", int.class);
+            LEXICON_GRAPH = lookup.findVirtual(lexicon, "getGraph", MethodType.methodType(graph))
+                    .asType(MethodType.methodType(Object.class, Object.class));
+            WORD_AT = virtual(lookup, graph, "wordAt", String.class, int.class);
+            PUZZLE_START = lookup.findGetter(puzzle, "startWord", String.class)
+                    .asType(MethodType.methodType(String.class, Object.class));
+            PUZZLE_TARGET = lookup.findGetter(puzzle, "targetWord", String.class)
+                    .asType(MethodType.methodType(String.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private Weaver() {
+    }
+
+    // Handle for receiver.name(parameters), with the receiver typed as Object.
+    private static MethodHandle virtual(MethodHandles.Lookup lookup, Class<?> receiver, String name,
+                                        Class<?> returnType, Class<?>... parameters) throws ReflectiveOperationException {
+        MethodHandle handle = lookup.findVirtual(receiver, name, MethodType.methodType(returnType, parameters));
+        return handle.asType(handle.type().changeParameterType(0, Object.class));
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException) return (RuntimeException) t;
+        if (t instanceof Error) throw (Error) t;
+        return new IllegalStateException(t);
+    }
+
+    static Object loadLexicon(String filename) {
+        try {
+            return (Object) LOAD.invokeExact(filename);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object reloadLexicon(String filename) {
+        try {
+            return (Object) RELOAD.invokeExact(filename);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object newModel(Object lexicon) {
+        try {
+            return (Object) NEW_MODEL.invokeExact(lexicon);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static boolean isValidWord(Object model, String word) {
+        try {
+            return (boolean) IS_VALID_WORD.invokeExact(model, word);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static boolean isValidMove(Object model, String previous, String next) {
+        try {
+            return (boolean) IS_VALID_MOVE.invokeExact(model, previous, next);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object checkGuess(Object model, String word) {
+        try {
+            return (Object) CHECK_GUESS.invokeExact(model, word);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static int scoreGuess(Object model, String word) {
+        try {
+            return (int) SCORE_GUESS.invokeExact(model, word);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static boolean makeMove(Object model, String word) {
+        try {
+            return (boolean) MAKE_MOVE.invokeExact(model, word);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static boolean hasWon(Object model) {
+        try {
+            return (boolean) HAS_WON.invokeExact(model);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void initializeGame(Object model, String start, String target) {
+        try {
+            INITIALIZE_GAME.invokeExact(model, start, target);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void setShowPath(Object model, boolean show) {
+        try {
+            SET_SHOW_PATH.invokeExact(model, show);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static List<?> solutionPath(Object model) {
+        try {
+            return (List<?>) SOLUTION_PATH.invokeExact(model);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void invalidateSolutionCache(Object model) {
+        try {
+            INVALIDATE.invokeExact((Object) SOLUTION_CACHE.invokeExact(model));
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<String> findNeighbors(Object model, String word) {
+        try {
+            return (List<String>) FIND_NEIGHBORS.invokeExact(model, word);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static int dictionarySize(Object model) {
+        try {
+            return (int) DICTIONARY_SIZE.invokeExact(model);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    // {start, target} of a generated puzzle, or null when the dictionary has none of that length.
+    static String[] generatePuzzle(Object model, int minLength, int maxLength, long seed) {
+        try {
+            Object puzzle = (Object) GENERATE_PUZZLE.invokeExact(model, minLength, maxLength, seed);
+            if (puzzle == null) return null;
+            return new String[]{(String) PUZZLE_START.invokeExact(puzzle), (String) PUZZLE_TARGET.invokeExact(puzzle)};
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    // One shortest ladder, both ends included, or null when the words are not connected.
+    @SuppressWarnings("unchecked")
+    static List<String> shortestLadder(Object model, String start, String target) {
+        try {
+            Iterable<List<String>> ladders = (Iterable<List<String>>) SHORTEST_LADDERS.invokeExact(model, start, target);
+            return ladders.iterator().hasNext() ? ladders.iterator().next() : null;
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    // A dictionary word that cannot be reached from the given word, or null if there is none.
+    static String unreachableFrom(Object model, Object lexicon, String word) {
+        try {
+            int component = (int) COMPONENT_OF.invokeExact(model, word);
+            Object graph = (Object) LEXICON_GRAPH.invokeExact(lexicon);
+            int size = dictionarySize(model);
+            for (int id = 0; id < size; id++) {
+                String candidate = (String) WORD_AT.invokeExact(graph, id);
+                if (candidate != null && (int) COMPONENT_OF.invokeExact(model, candidate) != component) return candidate;
+            }
+            return null;
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    // dictionary.txt in the working directory, or the file named by -Dweaver.bench.dictionary.
+    static String realDictionary() {
+        String path = System.getProperty("weaver.bench.dictionary", "dictionary.txt");
+        if (!new File(path).isFile()) {
+            throw new IllegalStateException("Cannot find " + path + "; run from the directory holding it or set -Dweaver.bench.dictionary");
+        }
+        return path;
+    }
+
+    // Where Lexicon keeps the binary snapshot of a text word list (see DictionarySnapshot).
+    static File snapshotFileFor(File textFile) {
+        String path = textFile.getPath();
+        return new File((path.endsWith(".txt") ? path.substring(0, path.length() - 4) : path) + ".bin");
+    }
+
+    // Writes a word list of about half of all four-letter words over a-t, plus "zzzz", which
+    // has no neighbours and so is unreachable from every other word. Same seed, same file.
+    static File syntheticDictionary(long seed) throws IOException {
+        File file = Files.createTempFile("weaver-synthetic", ".txt").toFile();
+        file.deleteOnExit();
+        snapshotFileFor(file).deleteOnExit();
+        Random random = new Random(seed);
+        char[] word = new char[4];
+        try (PrintWriter out = new PrintWriter(file)) {
+            for (int a = 0; a < 20; a++) {
+                for (int b = 0; b < 20; b++) {
+                    for (int c = 0; c < 20; c++) {
+                        for (int d = 0; d < 20; d++) {
+                            if (random.nextBoolean()) {
+                                word[0] = (char) ('a' + a);
+                                word[1] = (char) ('a' + b);
+                                word[2] = (char) ('a' + c);
+                                word[3] = (char) ('a' + d);
+                                out.println(word);
+                            }
+                        }
+                    }
+                }
+            }
+            out.println("zzzz");
+        }
+        return file;
+    }
+}